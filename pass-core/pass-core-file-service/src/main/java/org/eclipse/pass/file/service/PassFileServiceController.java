@@ -24,10 +24,10 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.pass.file.service.storage.FileStorageService;
 import org.eclipse.pass.file.service.storage.StorageFile;
+import org.eclipse.pass.file.service.storage.StorageResource;
 import org.eclipse.pass.object.security.WebSecurityRole;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -73,12 +73,8 @@ public class PassFileServiceController {
     @PostMapping("/file")
     public ResponseEntity<?> fileUpload(@RequestParam("file") MultipartFile file, Principal principal) {
         StorageFile returnStorageFile;
-        try {
-            if (file.getBytes().length == 0 || file.isEmpty()) {
-                return ResponseEntity.badRequest().build();
-            }
-        } catch (IOException e) {
-            LOG.error("File Service: Error processing file upload: " + e);
+        //the size is known without reading the upload
+        if (file.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
@@ -93,7 +89,8 @@ public class PassFileServiceController {
     }
 
     /**
-     * Gets a file by the fileId and returns a single file. Implicitly supports HTTP HEAD.
+     * Gets a file by the fileId and returns a single file. Implicitly supports HTTP HEAD. The file is streamed from
+     * storage. Byte range requests and conditional requests using the ETag or Last-Modified headers are supported.
      *
      * @param uuid of the file to return (required), is one part of the fileId
      * @param origFileName of the file to return (required), is one part of the fileId
@@ -107,7 +104,7 @@ public class PassFileServiceController {
             LOG.error("File ID not provided to get a file.");
             return ResponseEntity.badRequest().body("File ID not provided to get a file.");
         }
-        ByteArrayResource fileResource;
+        StorageResource fileResource;
         String contentType = "";
 
         try {
@@ -118,12 +115,18 @@ public class PassFileServiceController {
             return ResponseEntity.notFound().build();
         }
 
+        // Spring handles conditional and range requests based on these headers and the resource
         String headerAttachment = "attachment; filename=\"" + origFileName + "\"";
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, headerAttachment)
-                .contentLength(fileResource.contentLength())
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(fileResource);
+                .lastModified(fileResource.lastModified())
+                .contentType(MediaType.parseMediaType(contentType));
+
+        if (fileResource.getETag() != null) {
+            builder.eTag(fileResource.getETag());
+        }
+
+        return builder.body(fileResource);
     }
 
     /**
@@ -155,7 +158,7 @@ public class PassFileServiceController {
 
     private boolean canUserDeleteFile(String principalName, String fileId, HttpServletRequest request) {
         return (request.isUserInRole(WebSecurityRole.BACKEND.getValue()) ||
-                fileStorageService.checkUserDeletePermissions(principalName, fileId));
+                fileStorageService.checkUserDeletePermissions(fileId, principalName));
     }
 
     private ResponseEntity<?> deleteFile(String fileId) {
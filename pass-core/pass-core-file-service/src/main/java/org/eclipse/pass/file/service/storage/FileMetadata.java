@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.file.service.storage;
+
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Metadata about a file in storage recorded when the file is stored. It lets the FileStorageService answer
+ * questions about a file without reading the OCFL inventory. The entity is not exposed by the JSON API.
+ */
+@Entity
+@Table(name = "pass_file_metadata")
+public class FileMetadata {
+    @Id
+    @Column(name = "file_id")
+    private String fileId;
+
+    @Column(name = "file_size")
+    private long size;
+
+    private String digest;
+
+    @Column(name = "mime_type")
+    private String mimeType;
+
+    private String owner;
+
+    @Column(name = "ocfl_version")
+    private String ocflVersion;
+
+    private Instant created;
+
+    /**
+     * Constructor for JPA.
+     */
+    protected FileMetadata() {}
+
+    /**
+     * @param fileId id of the file
+     * @param size of the file in bytes
+     * @param digest hex encoded SHA-512 digest of the file
+     * @param mimeType mime type of the file
+     * @param owner name of the user who stored the file
+     * @param ocflVersion head version of the OCFL object holding the file
+     * @param created time the file was stored
+     */
+    public FileMetadata(String fileId, long size, String digest, String mimeType, String owner, String ocflVersion,
+            Instant created) {
+        this.fileId = fileId;
+        this.size = size;
+        this.digest = digest;
+        this.mimeType = mimeType;
+        this.owner = owner;
+        this.ocflVersion = ocflVersion;
+        this.created = created;
+    }
+
+    /**
+     * @return id of the file
+     */
+    public String getFileId() {
+        return fileId;
+    }
+
+    /**
+     * @return size of the file in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return hex encoded SHA-512 digest of the file
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * @return mime type of the file
+     */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * @return name of the user who stored the file
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * @return head version of the OCFL object holding the file
+     */
+    public String getOcflVersion() {
+        return ocflVersion;
+    }
+
+    /**
+     * @return time the file was stored
+     */
+    public Instant getCreated() {
+        return created;
+    }
+}
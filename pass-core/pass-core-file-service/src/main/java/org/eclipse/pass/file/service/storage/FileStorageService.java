@@ -18,15 +18,34 @@ package org.eclipse.pass.file.service.storage;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import javax.annotation.PreDestroy;
 
 import edu.wisc.library.ocfl.api.OcflRepository;
 import edu.wisc.library.ocfl.api.exception.NotFoundException;
@@ -35,7 +54,6 @@ import edu.wisc.library.ocfl.api.model.ObjectVersionId;
 import edu.wisc.library.ocfl.api.model.User;
 import edu.wisc.library.ocfl.api.model.VersionDetails;
 import edu.wisc.library.ocfl.api.model.VersionInfo;
-import edu.wisc.library.ocfl.aws.OcflS3Client;
 import edu.wisc.library.ocfl.core.OcflRepositoryBuilder;
 import edu.wisc.library.ocfl.core.extension.storage.layout.config.HashedNTupleLayoutConfig;
 import edu.wisc.library.ocfl.core.path.constraint.ContentPathConstraints;
@@ -47,15 +65,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 
 /**
  * The FileStorageService is responsible for the implementation of the persistence of files to their respective
@@ -73,10 +94,17 @@ import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
  *  - ocflDir: This is the directory where files are stored in the OCFL repository. This is a child of the rootDir.
  *  - workDir: This is a temporary working directory that is required by the OcflRepositoryBuilder. This is a child of
  *       the rootDir. Both the ocflDir and workDir are required to be on the same mount.
- *  - tempDir: This is a temporary directory that is used to move files to/from the OCFL repository and staging them
- *      for download. This is a child of the rootDir.
+ *  - tempDir: This is a temporary directory which is a child of the rootDir. Uploads are streamed directly into
+ *      the OCFL work directory and downloads are streamed directly from the OCFL repository, so neither is staged
+ *      here. Orphaned files in the tempDir and workDir are removed periodically.
+ * The size, digest, content type, owner, and version of each stored file are recorded in an index in the
+ * database when the file is stored. Lookups of that metadata do not have to access the OCFL repository.
  * Note, the S3 OCFL implementation does not cache locally and therefore performs much slower compared to the file
- * system implementation, most notably on large files.
+ * system implementation, most notably on large files. To reduce the difference, files larger than the configured
+ * S3 part size are uploaded as multipart uploads with the parts sent in parallel. They are downloaded as ranged
+ * requests for parts. The part being read is streamed. A download which reads past its first part also has up to
+ * two parts downloaded ahead of the reader. All downloads together hold at most two parts per S3 transfer thread
+ * in memory. When that limit is reached, parts are only streamed.
  *
  * @author Tim Sanders
  * @see StorageServiceType
@@ -86,22 +114,47 @@ import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
 public class FileStorageService {
     private static final Logger LOG = LoggerFactory.getLogger(FileStorageService.class);
 
+    /**
+     * Staging files older than this are considered orphaned.
+     */
+    static final Duration STAGING_MAX_AGE = Duration.ofHours(24);
+
+    private static final String STAGING_CLEANUP_INTERVAL = "PT1H";
+
+    /**
+     * Number of parts of a large S3 file downloaded ahead of the reader.
+     */
+    static final int S3_READ_AHEAD_PARTS = 2;
+
+    /**
+     * Number of parts downloaded ahead which may be held in memory by all downloads, per S3 transfer thread.
+     */
+    static final int S3_BUFFERED_PARTS_PER_THREAD = 2;
+
     private final Path tempLoc;
+    private final Path workLoc;
+    private final FileMetadataRepository metadataRepository;
     private final StorageServiceType storageType;
     private final OcflRepository ocflRepository;
     private Path ocflLoc;
     private S3Client cloudS3Client;
     private String bucketName;
     private String repoPrefix;
+    private long s3PartSize;
+    private ExecutorService s3UploadExecutor;
+    private ExecutorService s3DownloadExecutor;
+    private Semaphore s3DownloadBuffers;
 
     /**
      *  FileStorageService Class constructor.
      * @param storageConfiguration A set of configuration properties of the File Service.
+     * @param metadataRepository The index of metadata about stored files.
      * @param awsRegion The AWS region where the S3 bucket is located.
      * @throws IOException If the storage root directory cannot be created.
      */
-    public FileStorageService(StorageConfiguration storageConfiguration,
+    public FileStorageService(StorageConfiguration storageConfiguration, FileMetadataRepository metadataRepository,
             @Value("${aws.region}") String awsRegion) throws IOException {
+        this.metadataRepository = metadataRepository;
         StorageProperties storageProperties = storageConfiguration.getStorageProperties();
         storageType = storageProperties.getStorageType();
         LOG.info("File Service: " + storageType + " Storage Type");
@@ -123,7 +176,7 @@ public class FileStorageService {
         if (storageType.equals(StorageServiceType.FILE_SYSTEM)) {
             ocflLoc = Paths.get(rootLoc.toString(), storageProperties.getStorageOcflDir());
         }
-        Path workLoc = Paths.get(rootLoc.toString(), storageProperties.getStorageWorkDir());
+        this.workLoc = Paths.get(rootLoc.toString(), storageProperties.getStorageWorkDir());
         this.tempLoc = Paths.get(rootLoc.toString(), storageProperties.getStorageTempDir());
 
         try {
@@ -136,6 +189,7 @@ public class FileStorageService {
             if (!Files.isReadable(workLoc) || !Files.isWritable(workLoc)) {
                 throw new IOException("File Service: No permission to read/write work directory.");
             }
+            Files.createDirectories(tempLoc);
             if (!Files.isReadable(rootLoc) || !Files.isWritable(rootLoc)) {
                 throw new IOException("File Service: No permission to read/write File Service root directory.");
             }
@@ -203,31 +257,23 @@ public class FileStorageService {
                 throw new IOException("File Service: S3 client is not configured");
             }
 
-            //repoPrefix is optional and can be built with or without it
-            if (storageProperties.getS3RepoPrefix().isPresent()) {
-                ocflRepository = new OcflRepositoryBuilder()
-                        .defaultLayoutConfig(new HashedNTupleLayoutConfig())
-                        .contentPathConstraints(ContentPathConstraints.cloud())
-                        .storage(storage -> storage
-                                .cloud(OcflS3Client.builder()
-                                        .s3Client(cloudS3Client)
-                                        .bucket(bucketName)
-                                        .repoPrefix(repoPrefix)
-                                        .build()))
-                        .workDir(workLoc)
-                        .build();
-            } else {
-                ocflRepository = new OcflRepositoryBuilder()
-                        .defaultLayoutConfig(new HashedNTupleLayoutConfig())
-                        .contentPathConstraints(ContentPathConstraints.cloud())
-                        .storage(storage -> storage
-                                .cloud(OcflS3Client.builder()
-                                        .s3Client(cloudS3Client)
-                                        .bucket(bucketName)
-                                        .build()))
-                        .workDir(workLoc)
-                        .build();
-            }
+            //large files are transferred as parts in parallel, repoPrefix is optional
+            s3PartSize = storageProperties.getS3PartSize();
+            //uploads and downloads use separate pools so that one cannot starve the other
+            s3UploadExecutor = create_transfer_executor(storageProperties.getS3TransferThreads(),
+                    "file-service-s3-upload");
+            s3DownloadExecutor = create_transfer_executor(storageProperties.getS3TransferThreads(),
+                    "file-service-s3-download");
+            s3DownloadBuffers = new Semaphore(storageProperties.getS3TransferThreads()
+                    * S3_BUFFERED_PARTS_PER_THREAD);
+            ocflRepository = new OcflRepositoryBuilder()
+                    .defaultLayoutConfig(new HashedNTupleLayoutConfig())
+                    .contentPathConstraints(ContentPathConstraints.cloud())
+                    .storage(storage -> storage
+                            .cloud(new ParallelOcflS3Client(cloudS3Client, bucketName,
+                                    repoPrefix == null ? "" : repoPrefix, s3PartSize, s3UploadExecutor)))
+                    .workDir(workLoc)
+                    .build();
             LOG.info("File Service: S3 client is configured and OCFL repository is built");
         } else {
             throw new IOException("File Service: File Service Type is missing or incorrect in the " +
@@ -260,33 +306,28 @@ public class FileStorageService {
             //changing the stored file name to UUID to prevent any issues with long file names
             //e.g. 260 char limit on the path in Windows. Original filename is preserved in the fileId.
             String ocflRepoFileName = StringUtils.isNotEmpty(fileExt) ? fileUuid + "." + fileExt : fileUuid;
-            Path pathTempLoc = Paths.get(tempLoc.toString());
 
             //Create OCFL user to identify the owner of the file
             User fileUser = new User();
             fileUser.setName(userName);
 
-            if (!Files.exists(pathTempLoc)) {
-                Files.createDirectory(pathTempLoc);
-            }
-            Path tempPathAndFileName = Paths.get(tempLoc.toString(), ocflRepoFileName);
-            mFile.transferTo(tempPathAndFileName);
-            if (storageType.equals(StorageServiceType.FILE_SYSTEM)) {
-                ocflRepository.putObject(ObjectVersionId.head(fileId), tempPathAndFileName,
-                        new VersionInfo().setMessage("Pass-Core File Service: Initial commit").setUser(fileUser));
-                String fileRepoRelPath = ocflRepository.describeVersion(ObjectVersionId.head(fileId))
-                        .getFileMap().entrySet().iterator().next().getValue().getStorageRelativePath();
-                LOG.info("File Service: File with ID " + fileId + " was stored in the file system repo at the " +
-                        "location:" + Paths.get(this.ocflLoc.toString(),fileRepoRelPath));
-
-            } else if (storageType.equals(StorageServiceType.S3)) {
-                ocflRepository.putObject(ObjectVersionId.head(fileId), tempPathAndFileName,
-                        new VersionInfo().setMessage("Pass-Core File Service: Initial commit").setUser(fileUser));
-                String fileRepoRelPath = ocflRepository.describeVersion(ObjectVersionId.head(fileId))
-                        .getFileMap().entrySet().iterator().next().getValue().getStorageRelativePath();
-                LOG.info("File Service: File with ID " + fileId + " was stored in the S3 repo at location: " +
-                        Paths.get(this.repoPrefix,this.bucketName,fileRepoRelPath));
+            //the version creation time is set here so that the index records the same time as the inventory
+            OffsetDateTime created = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+
+            //the upload is streamed once into the OCFL work directory, which computes the digest as it is written
+            MessageDigest digest = create_digest();
+            ObjectVersionId version;
+            try (InputStream in = new DigestInputStream(mFile.getInputStream(), digest)) {
+                version = ocflRepository.updateObject(ObjectVersionId.head(fileId),
+                        new VersionInfo().setMessage("Pass-Core File Service: Initial commit").setUser(fileUser)
+                                .setCreated(created),
+                        updater -> updater.writeFile(in, ocflRepoFileName));
             }
+            LOG.info("File Service: File with ID " + fileId + " was stored in the " + storageType + " repo");
+
+            metadataRepository.save(new FileMetadata(fileId, mFile.getSize(), HexFormat.of().formatHex(
+                    digest.digest()), probe_content_type(ocflRepoFileName), userName,
+                    version.getVersionNum().toString(), created.toInstant()));
 
             storageFile = new StorageFile(
                     fileId,
@@ -297,8 +338,6 @@ public class FileStorageService {
                     mFile.getSize(),
                     fileExt
             );
-
-            Files.delete(tempPathAndFileName);
         } catch (IOException e) {
             LOG.error("Error storing file", e);
             throw new IOException("File Service: The file system was unable to store the uploaded file", e);
@@ -307,43 +346,171 @@ public class FileStorageService {
     }
 
     /**
-     * Gets the file (bytes) of the supplied fileId.
+     * Removes files left behind in the temp and OCFL work directories by operations which did not clean up, for
+     * example because the process was stopped during an upload. Only entries older than the max staging age are
+     * removed so operations in progress are not affected. Runs periodically once the service is in use.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = STAGING_CLEANUP_INTERVAL)
+    public void cleanupStaging() {
+        Instant cutoff = Instant.now().minus(STAGING_MAX_AGE);
+
+        for (Path dir : List.of(tempLoc, workLoc)) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    if (Files.getLastModifiedTime(entry).toInstant().isBefore(cutoff)) {
+                        LOG.info("File Service: Removing orphaned staging file " + entry);
+                        FileSystemUtils.deleteRecursively(entry);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.error("File Service: Unable to clean up staging directory " + dir, e);
+            }
+        }
+    }
+
+    private static MessageDigest create_digest() {
+        try {
+            return MessageDigest.getInstance("SHA-512");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String probe_content_type(String path) throws IOException {
+        String type = Files.probeContentType(Paths.get(path));
+        return type == null ? MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE : type;
+    }
+
+    /**
+     * Returns the indexed metadata of a file. Files stored before the index existed are added to it on first use.
+     *
+     * @param fileId The fileId of the file.
+     * @return metadata of the file
+     * @throws NotFoundException if the file does not exist
+     * @throws IOException if the size of the file cannot be determined
+     */
+    private FileMetadata get_metadata(String fileId) throws IOException {
+        Optional<FileMetadata> metadata = metadataRepository.findById(fileId);
+
+        if (metadata.isPresent()) {
+            return metadata.get();
+        }
+
+        VersionDetails versionDetails = ocflRepository.describeVersion(ObjectVersionId.head(fileId));
+        FileDetails fileDetails = versionDetails.getFiles().stream().findFirst()
+                .orElseThrow(() -> new NotFoundException("The file could not be found for file ID: " + fileId));
+        String relPath = fileDetails.getStorageRelativePath();
+        long size;
+
+        if (storageType.equals(StorageServiceType.FILE_SYSTEM)) {
+            size = Files.size(ocflLoc.resolve(relPath));
+        } else {
+            size = cloudS3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(get_s3_key(relPath))
+                    .build()).contentLength();
+        }
+
+        return metadataRepository.save(new FileMetadata(fileId, size,
+                fileDetails.getFixity().values().stream().findFirst().orElse(null),
+                probe_content_type(fileDetails.getPath()), get_owner(versionDetails),
+                versionDetails.getObjectVersionId().getVersionNum().toString(),
+                versionDetails.getCreated().toInstant()));
+    }
+
+    // Objects which were not stored by this service may not have a user
+    private static String get_owner(VersionDetails versionDetails) {
+        VersionInfo versionInfo = versionDetails.getVersionInfo();
+
+        if (versionInfo == null || versionInfo.getUser() == null) {
+            return null;
+        }
+
+        return versionInfo.getUser().getName();
+    }
+
+    private String get_s3_key(String relPath) {
+        return StringUtils.isNotBlank(repoPrefix) ? repoPrefix + "/" + relPath : relPath;
+    }
+
+    // The content is only located in storage when it is read
+    private InputStream open_content(String fileId, long position) throws IOException {
+        String relPath;
+
+        try {
+            relPath = getResourceFileRelativePath(fileId);
+        } catch (NotFoundException e) {
+            throw new IOException("File Service: The file could not be loaded, file ID: " + fileId + " " + e);
+        }
+
+        if (storageType.equals(StorageServiceType.FILE_SYSTEM)) {
+            SeekableByteChannel channel = Files.newByteChannel(ocflLoc.resolve(relPath));
+            channel.position(position);
+            return Channels.newInputStream(channel);
+        }
+
+        long size = get_metadata(fileId).getSize();
+
+        //large files are downloaded as ranged parts, the end of a requested range is not known so parts are
+        //requested as the stream is read
+        if (size - position > s3PartSize) {
+            return new S3RangeInputStream(cloudS3Client, bucketName, get_s3_key(relPath), position, size, s3PartSize,
+                    S3_READ_AHEAD_PARTS, s3DownloadExecutor, s3DownloadBuffers);
+        }
+
+        GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucketName).key(get_s3_key(relPath));
+
+        if (position > 0) {
+            request.range("bytes=" + position + "-");
+        }
+
+        try {
+            return cloudS3Client.getObject(request.build());
+        } catch (SdkException e) {
+            throw new IOException("File Service: The file could not be loaded, file ID: " + fileId + " " + e);
+        }
+    }
+
+    /**
+     * Stops the threads used to transfer parts of files to and from S3.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (s3UploadExecutor != null) {
+            s3UploadExecutor.shutdownNow();
+        }
+        if (s3DownloadExecutor != null) {
+            s3DownloadExecutor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService create_transfer_executor(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the file of the supplied fileId. The file is not copied. Its bytes are streamed directly from the OCFL
+     * content path when the returned resource is read. The size, digest, and time of the file come from the
+     * metadata index so storage is not accessed unless the file is read.
      *
      * @param fileId The fileId of the file to be returned.
-     * @return Returns a file as a ByteArrayResource
+     * @return Returns a file as a StorageResource
      * @throws IOException If a file does not exist or the appropriate read/write permissions are not correct an
      * IOException will be thrown.
      */
-    public ByteArrayResource getFile(String fileId) throws IOException {
-        ByteArrayResource loadedResource;
-        Path tempLoadDir = Paths.get(this.tempLoc.toString(),"output", fileId.split("/")[0],
-                Instant.now().toString().replace(":","-").replace(".","-"));
-        Path tempLoadParentDir = Paths.get(this.tempLoc.toString(),"output", fileId.split("/")[0]);
-        try {
-            //need the parent directory for the OCFL getObject to work
-            if (!Files.exists(tempLoadParentDir)) {
-                Files.createDirectories(tempLoadParentDir);
-            }
-            // the output path for getObject must not exist, hence temp dir is created on the fly
-            ocflRepository.getObject(ObjectVersionId.head(fileId), tempLoadDir);
-            LOG.debug("File Service: File with ID " + fileId + " was loaded from the repo");
-            Path fileNamePath = Objects.requireNonNull(tempLoadDir.toFile().listFiles())[0].toPath();
-            loadedResource = new ByteArrayResource(Files.readAllBytes(fileNamePath));
+    public StorageResource getFile(String fileId) throws IOException {
+        FileMetadata metadata;
 
-        } catch (NotFoundException e) {
+        try {
+            metadata = get_metadata(fileId);
+        } catch (NotFoundException | SdkException e) {
             throw new IOException("File Service: The file could not be loaded, file ID: " + fileId + " " + e);
         }
 
-        if (loadedResource.exists() && loadedResource.isReadable()) {
-            //clean up temp directory
-            if (!FileSystemUtils.deleteRecursively(Paths.get(this.tempLoc.toString()))) {
-                LOG.debug("File Service: No files to cleanup on file get");
-            }
-            return loadedResource;
-        } else {
-            throw new IOException("File Service: Unable to return the file. Verify read/write " +
-                    "permissions of the temp directory.");
-        }
+        return new StorageResource(fileId, metadata.getSize(), metadata.getCreated().toEpochMilli(),
+                metadata.getDigest(), position -> open_content(fileId, position));
     }
 
     /**
@@ -352,6 +519,7 @@ public class FileStorageService {
      */
     public void deleteFile(String fileId) {
         ocflRepository.purgeObject(fileId);
+        metadataRepository.findById(fileId).ifPresent(metadataRepository::delete);
     }
 
     /**
@@ -377,18 +545,7 @@ public class FileStorageService {
      */
     public String getFileContentType(String fileId) {
         try {
-            VersionDetails versionDetails = ocflRepository.describeVersion(ObjectVersionId.head(fileId));
-            FileDetails fileDetails = versionDetails.getFiles().stream().findFirst()
-                    .orElseThrow(() -> new IOException("The content type could not be found for file ID: " + fileId));
-            Path fileDetailPath = Paths.get(fileDetails.getPath());
-            File file = fileDetailPath.toFile();
-
-            String type = Files.probeContentType(file.toPath());
-            if (type == null) {
-                type = MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE;
-            }
-
-            return type;
+            return get_metadata(fileId).getMimeType();
         } catch (IOException e) {
             LOG.error("File Service: Unable to determine the content type of the file with ID: " + fileId, e);
             return MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE;
@@ -410,11 +567,14 @@ public class FileStorageService {
      * obtain the owner.
      *
      * @param fileId The fileId of the file.
-     * @return The owner of the file.
+     * @return The owner of the file, or null if the file has no owner.
      */
     public String getFileOwner(String fileId) {
-        VersionInfo versionInfo = ocflRepository.describeVersion(ObjectVersionId.head(fileId)).getVersionInfo();
-        return versionInfo.getUser().getName();
+        try {
+            return get_metadata(fileId).getOwner();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
 
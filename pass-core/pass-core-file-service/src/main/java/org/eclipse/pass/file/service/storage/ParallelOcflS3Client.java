@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.file.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import edu.wisc.library.ocfl.aws.OcflS3Client;
+import edu.wisc.library.ocfl.core.storage.cloud.CloudObjectKey;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * OcflS3Client which uploads files larger than the part size as multipart uploads whose parts are sent in parallel.
+ * Each part is read directly from the file staged by OCFL so parts are not buffered in memory. Smaller files are
+ * uploaded by the OcflS3Client as a single request.
+ */
+class ParallelOcflS3Client extends OcflS3Client {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelOcflS3Client.class);
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final CloudObjectKey.Builder keyBuilder;
+    private final long partSize;
+    private final ExecutorService executor;
+
+    /**
+     * @param s3Client client used for all requests
+     * @param bucket name of the bucket
+     * @param repoPrefix prefix of keys in the bucket, may be empty
+     * @param partSize size of parts in bytes
+     * @param executor runs the part uploads
+     */
+    ParallelOcflS3Client(S3Client s3Client, String bucket, String repoPrefix, long partSize,
+            ExecutorService executor) {
+        super(s3Client, bucket, repoPrefix, null, null);
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.keyBuilder = CloudObjectKey.builder().prefix(repoPrefix);
+        this.partSize = partSize;
+        this.executor = executor;
+    }
+
+    @Override
+    public CloudObjectKey uploadFile(Path srcPath, String dstPath, String contentType) {
+        long size;
+
+        try {
+            size = Files.size(srcPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (size <= partSize) {
+            return super.uploadFile(srcPath, dstPath, contentType);
+        }
+
+        CloudObjectKey key = keyBuilder.buildFromPath(dstPath);
+        multipart_upload(srcPath, key.getKey(), size, contentType);
+
+        return key;
+    }
+
+    private void multipart_upload(Path src, String key, long size, String contentType) {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder().bucket(bucket)
+                .key(key).contentType(contentType).build()).uploadId();
+        int numParts = (int) ((size + partSize - 1) / partSize);
+        List<Future<CompletedPart>> futures = new ArrayList<>(numParts);
+
+        LOG.debug("File Service: Uploading " + key + " in " + numParts + " parts");
+
+        try {
+            for (int i = 0; i < numParts; i++) {
+                int partNumber = i + 1;
+                long offset = i * partSize;
+                long length = Math.min(partSize, size - offset);
+
+                futures.add(executor.submit(() -> upload_part(src, key, uploadId, partNumber, offset, length)));
+            }
+
+            List<CompletedPart> parts = new ArrayList<>(numParts);
+
+            for (Future<CompletedPart> future : futures) {
+                parts.add(future.get());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder().bucket(bucket).key(key)
+                    .uploadId(uploadId).multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId, futures);
+            throw new IllegalStateException("File Service: Interrupted while uploading " + key, e);
+        } catch (ExecutionException e) {
+            abort(key, uploadId, futures);
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException("File Service: Failed to upload " + key, e.getCause());
+        } catch (RuntimeException e) {
+            abort(key, uploadId, futures);
+            throw e;
+        }
+    }
+
+    private CompletedPart upload_part(Path src, String key, String uploadId, int partNumber, long offset,
+            long length) {
+        // The SDK may open the part more than once if the request is retried
+        RequestBody body = RequestBody.fromContentProvider(() -> open_part(src, offset, length), length,
+                "application/octet-stream");
+        String etag = s3Client.uploadPart(UploadPartRequest.builder().bucket(bucket).key(key).uploadId(uploadId)
+                .partNumber(partNumber).contentLength(length).build(), body).eTag();
+
+        return CompletedPart.builder().partNumber(partNumber).eTag(etag).build();
+    }
+
+    private static InputStream open_part(Path src, long offset, long length) {
+        try {
+            FileChannel channel = FileChannel.open(src);
+            channel.position(offset);
+            return new BoundedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void abort(String key, String uploadId, List<Future<CompletedPart>> futures) {
+        futures.forEach(f -> f.cancel(true));
+
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(key)
+                    .uploadId(uploadId).build());
+        } catch (RuntimeException e) {
+            LOG.error("File Service: Unable to abort multipart upload of " + key, e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.file.service.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+
+/**
+ * Reads a range of an S3 object. The range is split into parts which are read with ranged requests. Nothing is
+ * requested until the first read. The part being read is streamed. Once the reader moves past the first part,
+ * up to maxParts parts are downloaded in parallel ahead of the reader and held in memory. Each part downloaded
+ * ahead takes a permit from a semaphore shared by all streams until it has been read, which bounds the memory
+ * used by all downloads.
+ * Without a permit, parts are only streamed as they are read. A read of a small range therefore streams at most
+ * part of one part and the request is aborted when the stream is closed.
+ */
+class S3RangeInputStream extends InputStream {
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+    private final long end;
+    private final long partSize;
+    private final int maxParts;
+    private final ExecutorService executor;
+    private final Semaphore buffers;
+    private final Deque<Future<byte[]>> parts = new ArrayDeque<>();
+    private long next;
+    private InputStream current;
+    private boolean currentBuffered;
+    private boolean readAhead;
+
+    /**
+     * @param s3Client client used for all requests
+     * @param bucket name of the bucket
+     * @param key key of the object
+     * @param start offset of the first byte to read
+     * @param end offset after the last byte to read
+     * @param partSize size of parts in bytes
+     * @param maxParts max number of parts requested ahead of the reader
+     * @param executor runs the part downloads
+     * @param buffers permits for parts held in memory, shared by all streams
+     */
+    S3RangeInputStream(S3Client s3Client, String bucket, String key, long start, long end, long partSize,
+            int maxParts, ExecutorService executor, Semaphore buffers) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+        this.next = start;
+        this.end = end;
+        this.partSize = partSize;
+        this.maxParts = maxParts;
+        this.executor = executor;
+        this.buffers = buffers;
+    }
+
+    private GetObjectRequest part_request(long start) {
+        return GetObjectRequest.builder().bucket(bucket).key(key)
+                .range("bytes=" + start + "-" + (Math.min(start + partSize, end) - 1)).build();
+    }
+
+    // Parts are only downloaded ahead while permits are available
+    private void request_parts() {
+        while (parts.size() < maxParts && next < end && buffers.tryAcquire()) {
+            GetObjectRequest request = part_request(next);
+
+            try {
+                parts.add(executor.submit(() -> s3Client.getObjectAsBytes(request).asByteArray()));
+            } catch (RuntimeException e) {
+                buffers.release();
+                throw e;
+            }
+
+            next = Math.min(next + partSize, end);
+        }
+    }
+
+    // Returns false if there are no more parts
+    private boolean next_part() throws IOException {
+        close_current(false);
+
+        Future<byte[]> part = parts.poll();
+
+        if (part != null) {
+            // The permit of the part is held until the part has been read
+            try {
+                current = new ByteArrayInputStream(part.get());
+                currentBuffered = true;
+            } catch (InterruptedException e) {
+                buffers.release();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("File Service: Interrupted while reading " + key);
+            } catch (ExecutionException e) {
+                buffers.release();
+                throw new IOException("File Service: Failed to read part of " + key, e.getCause());
+            }
+        } else if (next < end) {
+            try {
+                current = s3Client.getObject(part_request(next));
+            } catch (SdkException e) {
+                throw new IOException("File Service: Failed to read part of " + key, e);
+            }
+
+            next = Math.min(next + partSize, end);
+        } else {
+            return false;
+        }
+
+        // Reading past the first part indicates that more of the range will be read
+        if (readAhead) {
+            request_parts();
+        }
+
+        readAhead = true;
+
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b;
+
+        while ((b = current == null ? -1 : current.read()) == -1) {
+            if (!next_part()) {
+                return -1;
+            }
+        }
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        int n;
+
+        while ((n = current == null ? -1 : current.read(b, off, len)) == -1) {
+            if (!next_part()) {
+                return -1;
+            }
+        }
+
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return current == null ? 0 : current.available();
+    }
+
+    // A streamed part which was not read to the end is aborted so the rest of it is not transferred
+    private void close_current(boolean abort) throws IOException {
+        if (currentBuffered) {
+            buffers.release();
+            currentBuffered = false;
+        }
+
+        if (abort && current instanceof ResponseInputStream<?> response) {
+            response.abort();
+        }
+
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parts.forEach(f -> {
+            f.cancel(true);
+            buffers.release();
+        });
+        parts.clear();
+        next = end;
+        close_current(true);
+    }
+}
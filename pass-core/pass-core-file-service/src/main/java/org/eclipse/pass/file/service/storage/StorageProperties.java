@@ -33,11 +33,16 @@ public class StorageProperties {
     private final static String OCFL_DIR = "ocfl";
     private final static String OCFL_WORK_DIR = "ocfl-work";
     private final static String TEMP_DIR = "temp";
+    private final static long MIN_S3_PART_SIZE = 5L * 1024 * 1024;
+    private final static long DEFAULT_S3_PART_SIZE = 16L * 1024 * 1024;
+    private final static int DEFAULT_S3_TRANSFER_THREADS = 8;
     private String rootDir;
     private StorageServiceType storageType;
     private String s3BucketName;
     private String s3Endpoint;
     private String s3RepoPrefix;
+    private long s3PartSize = DEFAULT_S3_PART_SIZE;
+    private int s3TransferThreads = DEFAULT_S3_TRANSFER_THREADS;
 
     /**
      * Get the root directory for the File Service. This is the absolute path of the root directory.
@@ -113,6 +118,25 @@ public class StorageProperties {
         return Optional.ofNullable(s3Endpoint);
     }
 
+    /**
+     * Get the size in bytes of the parts that files larger than it are split into when they are transferred to and
+     * from S3. The parts are transferred in parallel. S3 requires parts other than the last to be at least 5 MB.
+     *
+     * @return The S3 part size of the File Service
+     */
+    public long getS3PartSize() {
+        return Math.max(s3PartSize, MIN_S3_PART_SIZE);
+    }
+
+    /**
+     * Get the number of threads used to transfer parts of files to and from S3.
+     *
+     * @return The number of S3 transfer threads of the File Service
+     */
+    public int getS3TransferThreads() {
+        return s3TransferThreads;
+    }
+
     /**
      * Set the root directory for the File Service. This is the absolute path of the root directory.
      * Important: The OCFL root and working directory must be on the same mount.
@@ -158,4 +182,22 @@ public class StorageProperties {
     public void setS3Endpoint(String endpoint) {
         this.s3Endpoint = endpoint;
     }
+
+    /**
+     * Set the size in bytes of the parts that files are split into when they are transferred to and from S3.
+     *
+     * @param s3PartSize The S3 part size of the File Service
+     */
+    public void setS3PartSize(long s3PartSize) {
+        this.s3PartSize = s3PartSize;
+    }
+
+    /**
+     * Set the number of threads used to transfer parts of files to and from S3.
+     *
+     * @param s3TransferThreads The number of S3 transfer threads of the File Service
+     */
+    public void setS3TransferThreads(int s3TransferThreads) {
+        this.s3TransferThreads = s3TransferThreads;
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.file.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * A StorageResource provides the bytes of a file persisted in storage. The bytes are read directly from storage as
+ * the stream is consumed rather than being copied first. A stream which skips bytes before reading any starts
+ * reading storage at that position. This lets byte ranges of large files be served cheaply.
+ */
+public class StorageResource extends AbstractResource {
+    /**
+     * Opens a stream of the file at a position.
+     */
+    @FunctionalInterface
+    public interface Opener {
+        /**
+         * @param position offset of the first byte to read
+         * @return stream of the file starting at the position
+         * @throws IOException if the file cannot be read
+         */
+        InputStream open(long position) throws IOException;
+    }
+
+    private final String description;
+    private final long contentLength;
+    private final long lastModified;
+    private final String etag;
+    private final Opener opener;
+
+    /**
+     * @param description of the file
+     * @param contentLength length of the file in bytes
+     * @param lastModified time the file was last modified in milliseconds since the epoch
+     * @param etag entity tag which changes when the file changes
+     * @param opener used to read the file
+     */
+    public StorageResource(String description, long contentLength, long lastModified, String etag, Opener opener) {
+        this.description = description;
+        this.contentLength = contentLength;
+        this.lastModified = lastModified;
+        this.etag = etag;
+        this.opener = opener;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return entity tag which changes when the file changes
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new PositionedInputStream();
+    }
+
+    // Opens the underlying stream on first use at the position skipped to
+    private class PositionedInputStream extends InputStream {
+        private InputStream in;
+        private long position;
+
+        private InputStream get_stream() throws IOException {
+            if (in == null) {
+                in = opener.open(position);
+            }
+
+            return in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return get_stream().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return get_stream().read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (in != null) {
+                return in.skip(n);
+            }
+
+            long skipped = Math.max(0, Math.min(n, contentLength - position));
+            position += skipped;
+
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in == null ? 0 : in.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Configures ETag support for reads of the JSON API. A successful GET response has an ETag computed from the
+ * response body. A conditional GET with a matching If-None-Match header receives a 304 response without a body.
+ * This lets clients revalidate cached objects cheaply.
+ * <p>
+ * Computing an ETag requires buffering the whole response. Responses to reads of collections, which may be very
+ * large, are therefore written directly to the client without an ETag.
+ */
+@Configuration
+public class EtagConfiguration {
+    /**
+     * Filter which only computes ETags for reads of single objects.
+     */
+    static class JsonApiEtagFilter extends ShallowEtagHeaderFilter {
+        private final String jsonApiPath;
+
+        JsonApiEtagFilter(String jsonApiPath) {
+            this.jsonApiPath = jsonApiPath;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain chain) throws ServletException, IOException {
+            if (is_collection(request)) {
+                disableContentCaching(request);
+            }
+
+            super.doFilterInternal(request, response, chain);
+        }
+
+        // Paths of collections have the form /type or /type/id/relationship
+        private boolean is_collection(HttpServletRequest request) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+
+            if (!path.startsWith(jsonApiPath + "/")) {
+                return false;
+            }
+
+            String[] parts = path.substring(jsonApiPath.length() + 1).split("/");
+
+            return parts.length % 2 == 1;
+        }
+    }
+
+    /**
+     * @param json_api_path path of the JSON API
+     * @return filter which adds ETags to JSON API responses
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> jsonApiEtagFilter(
+            @Value("${elide.json-api.path}") String json_api_path) {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> result =
+            new FilterRegistrationBean<>(new JsonApiEtagFilter(json_api_path));
+
+        result.addUrlPatterns(json_api_path + "/*");
+        result.setName("jsonApiEtagFilter");
+
+        return result;
+    }
+}
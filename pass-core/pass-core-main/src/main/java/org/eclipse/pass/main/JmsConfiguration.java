@@ -21,7 +21,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TimeZone;
 import javax.jms.ConnectionFactory;
-import javax.jms.TextMessage;
 import javax.json.Json;
 import javax.json.JsonObjectBuilder;
 import javax.persistence.OptimisticLockException;
@@ -54,8 +53,8 @@ import com.yahoo.elide.spring.config.ElideConfigProperties;
 import com.yahoo.elide.utils.HeaderUtils;
 import org.apache.activemq.broker.BrokerService;
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.pass.main.repository.DepositRepository;
-import org.eclipse.pass.main.repository.SubmissionRepository;
+import org.eclipse.pass.main.outbox.OutboxEvent;
+import org.eclipse.pass.main.outbox.OutboxRelay;
 import org.eclipse.pass.object.model.Deposit;
 import org.eclipse.pass.object.model.EventType;
 import org.eclipse.pass.object.model.PassEntity;
@@ -73,10 +72,12 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jms.core.JmsTemplate;
 
 /**
  * Configures Elide such that updates to Submission, SubmissionEvent, and Deposit send messages to a JMS broker.
+ * The messages are added to an outbox in the same transaction as the update. The {@link OutboxRelay} sends them
+ * to the broker after the transaction commits. A slow or failing broker therefore does not slow down or lose
+ * updates.
  */
 @Configuration
 public class JmsConfiguration {
@@ -90,7 +91,7 @@ public class JmsConfiguration {
     static final String DEPOSIT_KEY = "deposit";
     static final String SUBMISSION_EVENT_KEY = "submission-event";
     static final String TYPE_KEY = "type";
-    static final String MESSAGE_PROPERTY_TYPE_KEY = "type";
+    static final String MESSAGE_PROPERTY_TYPE_KEY = OutboxRelay.MESSAGE_PROPERTY_TYPE_KEY;
 
     @Value("${pass.jms.queue.submission}")
     private String submission_queue;
@@ -242,80 +243,91 @@ public class JmsConfiguration {
      * @param injector the Injector
      * @param scanner the ClassScanner
      * @param entitiesToExclude the set of entities to exclude
-     * @param jms the JmsTemplate used by the hooks
      * @param userTokenFactory the TokenFactory
-     * @param submissionRepository the submission spring data repository
-     * @param depositRepository the deposit spring data repository
      * @return configured EntityDictionary.
      */
     @Bean
     public EntityDictionary buildDictionary(Injector injector, ClassScanner scanner,
                                             @Qualifier("entitiesToExclude") Set<Type<?>> entitiesToExclude,
-                                            JmsTemplate jms,
-                                            TokenFactory userTokenFactory,
-                                            SubmissionRepository submissionRepository,
-                                            DepositRepository depositRepository) {
+                                            TokenFactory userTokenFactory) {
 
         EntityDictionary dictionary = new EntityDictionary(new HashMap<>(), new HashMap<>(), injector,
                 CoerceUtil::lookup, entitiesToExclude, scanner);
 
-        setupHooks(dictionary, jms, userTokenFactory, submissionRepository, depositRepository);
+        setupHooks(dictionary, userTokenFactory);
 
         return dictionary;
     }
 
-    private void setupHooks(EntityDictionary dictionary, JmsTemplate jms, TokenFactory userTokenFactory,
-                            SubmissionRepository submissionRepository, DepositRepository depositRepository) {
+    // The hooks run before commit so that messages are added to the outbox in the same transaction
+    private void setupHooks(EntityDictionary dictionary, TokenFactory userTokenFactory) {
         LifeCycleHook<SubmissionEvent> sub_event_hook = (op, phase, event, scope, changes) -> {
-            send(jms, submission_event_queue, createMessage(event, userTokenFactory), SUBMISSION_EVENT_MESSAGE_TYPE);
+            send((RequestScope) scope, submission_event_queue, createMessage(event, userTokenFactory),
+                    SUBMISSION_EVENT_MESSAGE_TYPE);
         };
 
         LifeCycleHook<Submission> sub_hook = (op, phase, sub, scope, changes) -> {
             if (sub.getSubmitted() != null && sub.getSubmitted() == true) {
-                send(jms, submission_queue, createMessage(sub), SUBMISSION_MESSAGE_TYPE);
+                send((RequestScope) scope, submission_queue, createMessage(sub), SUBMISSION_MESSAGE_TYPE);
             }
         };
 
         LifeCycleHook<Deposit> deposit_hook = (op, phase, dep, scope, changes) -> {
-            send(jms, deposit_queue, createMessage(dep), DEPOSIT_MESSAGE_TYPE);
+            send((RequestScope) scope, deposit_queue, createMessage(dep), DEPOSIT_MESSAGE_TYPE);
         };
 
-        dictionary.bindTrigger(SubmissionEvent.class, Operation.CREATE, TransactionPhase.POSTCOMMIT, sub_event_hook,
+        dictionary.bindTrigger(SubmissionEvent.class, Operation.CREATE, TransactionPhase.PRECOMMIT, sub_event_hook,
                 false);
 
-        dictionary.bindTrigger(Submission.class, Operation.CREATE, TransactionPhase.POSTCOMMIT, sub_hook, false);
-        dictionary.bindTrigger(Submission.class, Operation.UPDATE, TransactionPhase.POSTCOMMIT, sub_hook, false);
+        dictionary.bindTrigger(Submission.class, Operation.CREATE, TransactionPhase.PRECOMMIT, sub_hook, false);
+        dictionary.bindTrigger(Submission.class, Operation.UPDATE, TransactionPhase.PRECOMMIT, sub_hook, false);
 
-        dictionary.bindTrigger(Deposit.class, Operation.CREATE, TransactionPhase.POSTCOMMIT, deposit_hook, false);
-        dictionary.bindTrigger(Deposit.class, Operation.UPDATE, TransactionPhase.POSTCOMMIT, deposit_hook, false);
+        dictionary.bindTrigger(Deposit.class, Operation.CREATE, TransactionPhase.PRECOMMIT, deposit_hook, false);
+        dictionary.bindTrigger(Deposit.class, Operation.UPDATE, TransactionPhase.PRECOMMIT, deposit_hook, false);
 
-        setupCheckVersionHooks(dictionary, submissionRepository, depositRepository);
+        setupCheckVersionHooks(dictionary);
     }
 
-    private void setupCheckVersionHooks(EntityDictionary dictionary, SubmissionRepository submissionRepository,
-                                        DepositRepository depositRepository) {
-        LifeCycleHook<Submission> submission_version_check = (op, phase, sub, scope, changes) -> {
-            Long repoSubVersion = submissionRepository.findSubmissionVersionById(sub.getId());
-            Long requestVersion = getRequestVersion((RequestScope) scope);
-            validateEntityVersions(repoSubVersion, requestVersion, sub);
+    // The version in the request is compared to the version of the object loaded by the request transaction.
+    // This does not require another query. The loaded version is then enforced by the conditional update done by
+    // JPA for @Version attributes.
+    private void setupCheckVersionHooks(EntityDictionary dictionary) {
+        LifeCycleHook<PassEntity> version_changed_check = (op, phase, entity, scope, changes) -> {
+            changes.ifPresent(change -> validateEntityVersions(toVersion(change.getOriginal()),
+                    toVersion(change.getModified()), entity));
         };
 
-        LifeCycleHook<Deposit> deposit_version_check = (op, phase, dep, scope, changes) -> {
-            Long repoDepVersion = depositRepository.findDepositVersionById(dep.getId());
-            Long requestVersion = getRequestVersion((RequestScope) scope);
-            validateEntityVersions(repoDepVersion, requestVersion, dep);
+        LifeCycleHook<Submission> submission_version_missing_check = (op, phase, sub, scope, changes) -> {
+            if (!hasRequestVersion((RequestScope) scope)) {
+                validateEntityVersions(sub.getVersion(), null, sub);
+            }
+        };
+
+        LifeCycleHook<Deposit> deposit_version_missing_check = (op, phase, dep, scope, changes) -> {
+            if (!hasRequestVersion((RequestScope) scope)) {
+                validateEntityVersions(dep.getVersion(), null, dep);
+            }
         };
 
+        // Triggered only if the version in the request differs from the loaded version
+        dictionary.bindTrigger(Submission.class, "version", Operation.UPDATE, TransactionPhase.PREFLUSH,
+            version_changed_check);
+        dictionary.bindTrigger(Deposit.class, "version", Operation.UPDATE, TransactionPhase.PREFLUSH,
+            version_changed_check);
+
         dictionary.bindTrigger(Submission.class, Operation.UPDATE, TransactionPhase.PREFLUSH,
-            submission_version_check, false);
+            submission_version_missing_check, false);
         dictionary.bindTrigger(Deposit.class, Operation.UPDATE, TransactionPhase.PREFLUSH,
-            deposit_version_check, false);
+            deposit_version_missing_check, false);
+    }
+
+    private boolean hasRequestVersion(RequestScope scope) {
+        return scope.getJsonApiDocument().getData().getSingleValue().getAttributes().containsKey("version");
     }
 
-    private Long getRequestVersion(RequestScope scope) {
-        Object requestVersion = scope.getJsonApiDocument().getData().getSingleValue().getAttributes().get("version");
+    private Long toVersion(Object version) {
         // The string -> double -> long conversion is needed because json could send number as float
-        return Objects.isNull(requestVersion) ? null : Double.valueOf(requestVersion.toString()).longValue();
+        return Objects.isNull(version) ? null : Double.valueOf(version.toString()).longValue();
     }
 
     private void validateEntityVersions(Long repoVersion, Long requestVersion, PassEntity passEntity) {
@@ -366,11 +378,8 @@ public class JmsConfiguration {
                 DEPOSIT_MESSAGE_TYPE).build().toString();
     }
 
-    private void send(JmsTemplate jms, String queue, String text, String type) {
-        jms.send(queue, ses -> {
-            TextMessage msg = ses.createTextMessage(text);
-            msg.setStringProperty(MESSAGE_PROPERTY_TYPE_KEY, type);
-            return msg;
-        });
+    // Add message to the outbox in the transaction of the request
+    private void send(RequestScope scope, String queue, String text, String type) {
+        scope.getTransaction().createObject(new OutboxEvent(queue, type, text), scope);
     }
 }
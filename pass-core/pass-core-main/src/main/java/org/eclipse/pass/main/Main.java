@@ -19,6 +19,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.jms.annotation.EnableJms;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
@@ -31,7 +32,9 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @ComponentScan(basePackages = {"org.eclipse.pass", "org.eclipse.pass.doi.service",
     "org.eclipse.pass.file.service", "org.eclipse.pass.user", "org.eclipse.pass.metadataschema.service",
     "org.eclipse.pass.policy.service"})
-@EntityScan(basePackages = { "org.eclipse.pass.object.model" })
+@EntityScan(basePackages = { "org.eclipse.pass.object.model", "org.eclipse.pass.main.outbox",
+    "org.eclipse.pass.file.service.storage", "com.yahoo.elide.async.models" })
+@EnableJpaRepositories(basePackages = { "org.eclipse.pass.main.repository", "org.eclipse.pass.file.service.storage" })
 public class Main {
     /**
      * Default constructor.
@@ -20,6 +20,7 @@ import javax.persistence.OptimisticLockException;
 import com.yahoo.elide.core.exceptions.CustomErrorException;
 import com.yahoo.elide.core.exceptions.ErrorMapper;
 import com.yahoo.elide.core.exceptions.ErrorObjects;
+import org.hibernate.StaleStateException;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -32,9 +33,12 @@ public class PassErrorMapper implements ErrorMapper {
     @Nullable
     @Override
     public CustomErrorException map(Exception e) {
-        if (e instanceof OptimisticLockException) {
-            ErrorObjects errors = ErrorObjects.builder().addError().withDetail(e.getMessage()).build();
-            return new CustomErrorException(HttpStatus.CONFLICT.value(), e.getMessage(), errors);
+        // A conflicting concurrent update is detected when the transaction is flushed and may be wrapped
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockException || t instanceof StaleStateException) {
+                ErrorObjects errors = ErrorObjects.builder().addError().withDetail(t.getMessage()).build();
+                return new CustomErrorException(HttpStatus.CONFLICT.value(), t.getMessage(), errors);
+            }
         }
         return null;
     }
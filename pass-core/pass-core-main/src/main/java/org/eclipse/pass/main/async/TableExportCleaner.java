@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.async;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes table export results from the export directory. Elide removes the records of async queries once they are
+ * older than the query cleanup age, but not the files holding their results. Result files are removed at the same
+ * age so that the export directory does not grow without bound.
+ */
+@Component
+@ConditionalOnProperty(name = "elide.async.export.enabled", havingValue = "true")
+public class TableExportCleaner {
+    private static final Logger LOG = LoggerFactory.getLogger(TableExportCleaner.class);
+
+    private static final String CLEANUP_INTERVAL = "PT1H";
+
+    private final Path exportDir;
+    private final Duration maxAge;
+
+    /**
+     * Creates the export directory if it does not exist.
+     *
+     * @param exportDir directory where results of table exports are stored
+     * @param cleanupDays days after which results are removed
+     * @throws IOException if the export directory cannot be created
+     */
+    public TableExportCleaner(@Value("${elide.async.export.storageDestination}") String exportDir,
+            @Value("${elide.async.queryCleanupDays}") int cleanupDays) throws IOException {
+        this.exportDir = Paths.get(exportDir);
+        this.maxAge = Duration.ofDays(cleanupDays);
+
+        Files.createDirectories(this.exportDir);
+    }
+
+    /**
+     * Remove results older than the query cleanup age.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = CLEANUP_INTERVAL)
+    public void cleanup() {
+        Instant cutoff = Instant.now().minus(maxAge);
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(exportDir, Files::isRegularFile)) {
+            for (Path entry : entries) {
+                if (Files.getLastModifiedTime(entry).toInstant().isBefore(cutoff)) {
+                    LOG.info("Removing expired table export " + entry);
+                    Files.deleteIfExists(entry);
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Unable to clean up table exports in " + exportDir, e);
+        }
+    }
+
+    /**
+     * @return directory where results of table exports are stored
+     */
+    public Path getExportDir() {
+        return exportDir;
+    }
+}
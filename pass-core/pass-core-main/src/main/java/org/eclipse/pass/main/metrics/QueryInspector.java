@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements prepared by Hibernate while a request is handled by the current thread. Statements
+ * prepared outside of a request are not counted. The statements are not modified.
+ * See {@link QueryMetricsFilter}.
+ */
+public class QueryInspector implements StatementInspector {
+    private static final ThreadLocal<Map<String, Integer>> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    /**
+     * Start counting statements for the current thread.
+     */
+    static void begin() {
+        REQUEST_STATEMENTS.set(new HashMap<>());
+    }
+
+    /**
+     * Stop counting statements for the current thread.
+     *
+     * @return map of each statement to the number of times it was prepared
+     */
+    static Map<String, Integer> end() {
+        Map<String, Integer> result = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+
+        return result == null ? Map.of() : result;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Map<String, Integer> statements = REQUEST_STATEMENTS.get();
+
+        if (statements != null) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+
+        return sql;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures metrics about the SQL statements run by requests. Hibernate is configured to use
+ * {@link QueryInspector} and {@link QueryTimingListener} in application.yaml.
+ */
+@Configuration
+public class QueryMetricsConfiguration {
+    /**
+     * @param registry to register metrics
+     * @param repeat_threshold number of times a statement may be prepared by a request before it is reported
+     * @return filter which records statements per request
+     */
+    @Bean
+    public FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(MeterRegistry registry,
+            @Value("${pass.db.repeated-statement-threshold}") int repeat_threshold) {
+        FilterRegistrationBean<QueryMetricsFilter> result =
+            new FilterRegistrationBean<>(new QueryMetricsFilter(registry, repeat_threshold));
+
+        result.addUrlPatterns("/*");
+        result.setName("queryMetricsFilter");
+
+        return result;
+    }
+}
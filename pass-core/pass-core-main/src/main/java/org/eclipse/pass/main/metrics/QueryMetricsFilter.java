@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records the number of SQL statements prepared while handling each request as the Micrometer distribution
+ * summary pass.db.request.statements. A statement prepared at least a threshold number of times by a single
+ * request usually indicates an N+1 query. Such a statement is logged and counted by the Micrometer counter
+ * pass.db.request.repeated.
+ */
+public class QueryMetricsFilter extends OncePerRequestFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(QueryMetricsFilter.class);
+
+    /**
+     * Name of the distribution summary of statements per request.
+     */
+    public static final String REQUEST_STATEMENTS = "pass.db.request.statements";
+
+    /**
+     * Name of the counter of repeated statements.
+     */
+    public static final String REPEATED_STATEMENTS = "pass.db.request.repeated";
+
+    private final DistributionSummary statements;
+    private final Counter repeated;
+    private final int repeatThreshold;
+
+    /**
+     * @param registry to register metrics
+     * @param repeatThreshold number of times a statement may be prepared by a request before it is reported
+     */
+    public QueryMetricsFilter(MeterRegistry registry, int repeatThreshold) {
+        this.statements = DistributionSummary.builder(REQUEST_STATEMENTS)
+            .description("Number of SQL statements prepared by a request").register(registry);
+        this.repeated = Counter.builder(REPEATED_STATEMENTS)
+            .description("Number of SQL statements repeatedly prepared by a request").register(registry);
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain chain) throws ServletException, IOException {
+        QueryInspector.begin();
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            record(request, QueryInspector.end());
+        }
+    }
+
+    private void record(HttpServletRequest request, Map<String, Integer> counts) {
+        int total = 0;
+
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            int count = entry.getValue();
+            total += count;
+
+            if (count >= repeatThreshold) {
+                repeated.increment();
+                LOG.warn("Statement prepared {} times by {} {}: {}", count, request.getMethod(),
+                    request.getRequestURI(), entry.getKey());
+            }
+        }
+
+        statements.record(total);
+    }
+}
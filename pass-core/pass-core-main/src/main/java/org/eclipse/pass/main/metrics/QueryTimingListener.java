@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Records the execution time of each SQL statement run by a Hibernate session as the Micrometer timer
+ * pass.db.statement. Hibernate creates a listener for every session.
+ */
+public class QueryTimingListener extends BaseSessionEventListener {
+    /**
+     * Name of the timer of statement executions.
+     */
+    public static final String STATEMENT_TIMER = "pass.db.statement";
+
+    private static final Timer TIMER = Timer.builder(STATEMENT_TIMER)
+        .description("Execution time of SQL statements").register(Metrics.globalRegistry);
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
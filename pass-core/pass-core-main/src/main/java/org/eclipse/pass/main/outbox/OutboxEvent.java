@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * A message waiting to be sent to a JMS queue. Events are persisted in the same transaction as the change
+ * which caused them and sent later by the {@link OutboxRelay}. The entity is not exposed by the JSON API.
+ */
+@Entity
+@Table(name = "pass_outbox_event")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String queue;
+
+    private String type;
+
+    private String message;
+
+    /**
+     * Constructor for JPA.
+     */
+    protected OutboxEvent() {}
+
+    /**
+     * @param queue name of queue
+     * @param type value of the message type property
+     * @param message text of the message
+     */
+    public OutboxEvent(String queue, String type, String message) {
+        this.queue = queue;
+        this.type = type;
+        this.message = message;
+    }
+
+    /**
+     * @return id which orders events by creation
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return name of queue
+     */
+    public String getQueue() {
+        return queue;
+    }
+
+    /**
+     * @return value of the message type property
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return text of the message
+     */
+    public String getMessage() {
+        return message;
+    }
+}
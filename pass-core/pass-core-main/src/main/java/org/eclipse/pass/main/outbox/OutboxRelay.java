@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.jms.Destination;
+import javax.jms.MessageProducer;
+import javax.jms.TextMessage;
+
+import org.eclipse.pass.main.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sends events in the outbox to JMS queues. The outbox is polled periodically and drained in batches. A batch
+ * is sent using a single JMS session and then removed from the outbox in the same database transaction which
+ * locked it. If sending fails, the batch remains in the outbox and is retried on the next poll. Events are
+ * therefore delivered at least once.
+ * <p>
+ * Identical events in a batch, such as repeated messages about an update to the same Submission, are coalesced.
+ * Messages about Submissions and Deposits only hold the type and id of the entity, so these are coalesced per
+ * entity. Events which accumulate between polls are drained in the first batches, so the poll interval is in
+ * effect the coalescing window. Coalescing is limited to the events locked by a batch so that an event can never
+ * be removed without it or an identical event locked with it being sent.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxRelay.class);
+
+    /**
+     * Max number of events sent in a batch.
+     */
+    public static final int BATCH_SIZE = 100;
+
+    /**
+     * Name of message property which holds the type of the message.
+     */
+    public static final String MESSAGE_PROPERTY_TYPE_KEY = "type";
+
+    private final OutboxEventRepository outbox;
+    private final JmsTemplate jms;
+    private final TransactionTemplate transaction;
+
+    /**
+     * @param outbox repository of events
+     * @param jms used to send events
+     * @param transactionManager used to lock and remove events
+     */
+    public OutboxRelay(OutboxEventRepository outbox, JmsTemplate jms,
+            PlatformTransactionManager transactionManager) {
+        this.outbox = outbox;
+        this.jms = jms;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Send all events in the outbox.
+     */
+    @Scheduled(fixedDelayString = "${pass.jms.outbox.poll-interval}")
+    public void relay() {
+        try {
+            int count;
+
+            do {
+                count = transaction.execute(status -> relay_batch());
+            } while (count == BATCH_SIZE);
+        } catch (RuntimeException e) {
+            LOG.error("Failed to relay events, will retry", e);
+        }
+    }
+
+    // Return number of events removed from the outbox
+    private int relay_batch() {
+        List<OutboxEvent> events = outbox.findOldest(PageRequest.of(0, BATCH_SIZE));
+
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Identifies events sent in this batch
+        Set<String> sent = new HashSet<>();
+
+        // Keep the order of events sent to each queue
+        Map<String, List<OutboxEvent>> queues = new LinkedHashMap<>();
+        events.forEach(ev -> {
+            if (sent.add(ev.getQueue() + "\n" + ev.getType() + "\n" + ev.getMessage())) {
+                queues.computeIfAbsent(ev.getQueue(), q -> new ArrayList<>()).add(ev);
+            }
+        });
+
+        if (LOG.isDebugEnabled()) {
+            int count = queues.values().stream().mapToInt(List::size).sum();
+            LOG.debug("Sending {} events, coalesced {}", count, events.size() - count);
+        }
+
+        jms.execute(session -> {
+            for (Map.Entry<String, List<OutboxEvent>> entry : queues.entrySet()) {
+                Destination dest = jms.getDestinationResolver().resolveDestinationName(session, entry.getKey(),
+                        false);
+
+                MessageProducer producer = session.createProducer(dest);
+
+                try {
+                    for (OutboxEvent ev : entry.getValue()) {
+                        TextMessage msg = session.createTextMessage(ev.getMessage());
+                        msg.setStringProperty(MESSAGE_PROPERTY_TYPE_KEY, ev.getType());
+                        producer.send(msg);
+                    }
+                } finally {
+                    producer.close();
+                }
+            }
+
+            return null;
+        }, true);
+
+        outbox.deleteAllInBatch(events);
+
+        return events.size();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache where entries expire a fixed time after they are added. When the cache is full, the least
+ * recently used entry is evicted. The cache is split into segments, each with its own lock, so that concurrent
+ * requests for different keys rarely contend.
+ *
+ * @param <V> type of value
+ */
+final class AuthenticationCache<V> {
+    /**
+     * Default number of segments.
+     */
+    static final int DEFAULT_SEGMENTS = 16;
+
+    private record Entry<V>(V value, long expires) {}
+
+    private final Map<String, Entry<V>>[] segments;
+    private final long ttl_nanos;
+    private final LongSupplier clock;
+
+    /**
+     * @param max_size approximate max number of entries
+     * @param ttl time an entry may be used after it is added
+     * @param unit unit of ttl
+     */
+    AuthenticationCache(int max_size, long ttl, TimeUnit unit) {
+        this(max_size, ttl, unit, DEFAULT_SEGMENTS, System::nanoTime);
+    }
+
+    /**
+     * @param max_size approximate max number of entries
+     * @param ttl time an entry may be used after it is added
+     * @param unit unit of ttl
+     * @param segment_count number of segments
+     * @param clock source of time in nanoseconds
+     */
+    @SuppressWarnings("unchecked")
+    AuthenticationCache(int max_size, long ttl, TimeUnit unit, int segment_count, LongSupplier clock) {
+        int segment_size = Math.max(1, (max_size + segment_count - 1) / segment_count);
+
+        this.segments = new Map[segment_count];
+        this.ttl_nanos = unit.toNanos(ttl);
+        this.clock = clock;
+
+        for (int i = 0; i < segment_count; i++) {
+            segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                    return size() > segment_size;
+                }
+            };
+        }
+    }
+
+    private Map<String, Entry<V>> get_segment(String key) {
+        return segments[Math.floorMod(key.hashCode(), segments.length)];
+    }
+
+    /**
+     * @param key of entry
+     * @return value or null if there is no value or it has expired
+     */
+    V get(String key) {
+        Map<String, Entry<V>> segment = get_segment(key);
+
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+
+            if (entry == null) {
+                return null;
+            }
+
+            if (clock.getAsLong() - entry.expires() >= 0) {
+                segment.remove(key);
+                return null;
+            }
+
+            return entry.value();
+        }
+    }
+
+    /**
+     * @param key of entry
+     * @param value of entry
+     */
+    void put(String key, V value) {
+        Map<String, Entry<V>> segment = get_segment(key);
+        Entry<V> entry = new Entry<>(value, clock.getAsLong() + ttl_nanos);
+
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    /**
+     * Remove expired entries.
+     */
+    void removeExpired() {
+        long now = clock.getAsLong();
+
+        for (Map<String, Entry<V>> segment : segments) {
+            synchronized (segment) {
+                segment.values().removeIf(entry -> now - entry.expires() >= 0);
+            }
+        }
+    }
+
+    /**
+     * @return number of entries including expired entries which have not been removed
+     */
+    int size() {
+        int result = 0;
+
+        for (Map<String, Entry<V>> segment : segments) {
+            synchronized (segment) {
+                result += segment.size();
+            }
+        }
+
+        return result;
+    }
+}
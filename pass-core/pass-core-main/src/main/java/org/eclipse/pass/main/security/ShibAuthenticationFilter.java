@@ -16,8 +16,8 @@
 package org.eclipse.pass.main.security;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -26,7 +26,6 @@ import javax.servlet.http.HttpServletResponse;
 
 import com.yahoo.elide.RefreshableElide;
 import org.eclipse.pass.object.PassClient;
-import org.eclipse.pass.object.PassClientResult;
 import org.eclipse.pass.object.PassClientSelector;
 import org.eclipse.pass.object.RSQL;
 import org.eclipse.pass.object.model.PassEntity;
@@ -53,29 +52,42 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * In any case, the request is passed down the chain.
  * <p>
  * A cache of maximum size pass.auth.max-cache-size of recent authentications is
- * maintained. It is cleared every pass.auth.cache-duration minutes.
+ * maintained. The least recently used authentication is evicted when the cache is full.
+ * Each authentication expires pass.auth.cache-duration minutes after it is added.
+ * <p>
+ * Mapping a user is done while holding a lock chosen by user name. Concurrent requests for the same user
+ * do not create duplicate users, while requests for different users usually proceed in parallel.
  */
 @Component
 public class ShibAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger LOG = LoggerFactory.getLogger(ShibAuthenticationFilter.class);
 
-    private final ConcurrentHashMap<String, ShibAuthentication> auth_cache;
-    private final RefreshableElide elide;
+    private static final int USER_LOCK_STRIPES = 64;
 
-    @Value("${pass.auth.max-cache-size}")
-    private int max_cache_size;
+    private final AuthenticationCache<ShibAuthentication> auth_cache;
+    private final Object[] user_locks;
+    private final RefreshableElide elide;
 
     /**
      * @param refreshableElide RefreshableElide
+     * @param max_cache_size max number of cached authentications
+     * @param cache_duration minutes a cached authentication may be used
      */
-    public ShibAuthenticationFilter(RefreshableElide refreshableElide) {
-        this.auth_cache = new ConcurrentHashMap<>();
+    public ShibAuthenticationFilter(RefreshableElide refreshableElide,
+            @Value("${pass.auth.max-cache-size}") int max_cache_size,
+            @Value("${pass.auth.cache-duration}") int cache_duration) {
+        this.auth_cache = new AuthenticationCache<>(max_cache_size, cache_duration, TimeUnit.MINUTES);
+        this.user_locks = new Object[USER_LOCK_STRIPES];
         this.elide = refreshableElide;
+
+        for (int i = 0; i < user_locks.length; i++) {
+            user_locks[i] = new Object();
+        }
     }
 
     @Scheduled(fixedRateString = "${pass.auth.cache-duration}", timeUnit = TimeUnit.MINUTES)
-    private void clear_cache() {
-        auth_cache.clear();
+    private void remove_expired() {
+        auth_cache.removeExpired();
     }
 
     // Do authentication and return Authentication object representing success.
@@ -96,21 +108,27 @@ public class ShibAuthenticationFilter extends OncePerRequestFilter {
             return auth;
         }
 
-        create_or_update_pass_user(shib_user);
+        // Ensure that only one user is created
+        synchronized (get_user_lock(shib_user.getUsername())) {
+            // Another request may have mapped the user while waiting
+            auth = auth_cache.get(shib_user.getUsername());
 
-        auth = new ShibAuthentication(shib_user);
+            if (auth == null) {
+                create_or_update_pass_user(shib_user);
 
-        if (auth_cache.size() > max_cache_size) {
-            auth_cache.clear();
+                auth = new ShibAuthentication(shib_user);
+                auth_cache.put(shib_user.getUsername(), auth);
+            }
         }
 
-        auth_cache.put(shib_user.getUsername(), auth);
-
         return auth;
     }
 
-    // Ensure that only one user is created
-    private synchronized void create_or_update_pass_user(User shib_user) throws IOException {
+    private Object get_user_lock(String username) {
+        return user_locks[Math.floorMod(username.hashCode(), user_locks.length)];
+    }
+
+    private void create_or_update_pass_user(User shib_user) throws IOException {
         try (PassClient pass_client = PassClient.newInstance(elide)) {
             User pass_user = find_pass_user(pass_client, shib_user);
 
@@ -173,16 +191,22 @@ public class ShibAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    // Find the user matching the first locator which matches any user with a single query
     private User find_pass_user(PassClient pass_client, User user) throws IOException {
+        if (user.getLocatorIds().isEmpty()) {
+            return null;
+        }
+
         PassClientSelector<User> selector = new PassClientSelector<>(User.class);
+        selector.setFilter(RSQL.hasAnyMember("locatorIds", user.getLocatorIds().toArray(String[]::new)));
+        List<User> candidates = pass_client.selectObjects(selector).getObjects();
 
         for (String locator_id : user.getLocatorIds()) {
-            selector.setFilter(RSQL.hasMember("locatorIds", locator_id));
-            PassClientResult<User> result = pass_client.selectObjects(selector);
+            List<User> matches = candidates.stream().filter(u -> u.getLocatorIds().contains(locator_id)).toList();
 
-            if (result.getTotal() == 1) {
-                return result.getObjects().get(0);
-            } else if (result.getTotal() > 1) {
+            if (matches.size() == 1) {
+                return matches.get(0);
+            } else if (matches.size() > 1) {
                 throw new BadCredentialsException("Found multiple users matching locator: " + locator_id);
             }
         }
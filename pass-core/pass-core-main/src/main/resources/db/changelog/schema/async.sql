@@ -0,0 +1,38 @@
+
+-- Elide async queries and table exports
+
+CREATE TABLE public.AsyncQuery (
+    id character varying(36) PRIMARY KEY,
+    requestId character varying(36),
+    query text,
+    queryType character varying(255),
+    principalName character varying(255),
+    status character varying(255),
+    createdOn timestamp,
+    updatedOn timestamp,
+    httpStatus integer,
+    completedOn timestamp,
+    recordCount integer,
+    contentLength integer,
+    responseBody text
+);
+
+CREATE TABLE public.TableExport (
+    id character varying(36) PRIMARY KEY,
+    requestId character varying(36),
+    query text,
+    queryType character varying(255),
+    resultType character varying(255),
+    principalName character varying(255),
+    status character varying(255),
+    createdOn timestamp,
+    updatedOn timestamp,
+    httpStatus integer,
+    completedOn timestamp,
+    recordCount integer,
+    url text,
+    message text
+);
+
+CREATE INDEX asyncquery_createdon_ix ON public.AsyncQuery (createdOn);
+CREATE INDEX tableexport_createdon_ix ON public.TableExport (createdOn);
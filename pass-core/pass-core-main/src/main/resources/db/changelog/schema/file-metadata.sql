@@ -0,0 +1,12 @@
+
+-- Metadata about files in the file service
+
+CREATE TABLE public.pass_file_metadata (
+    file_id character varying(1024) PRIMARY KEY,
+    file_size bigint NOT NULL,
+    digest character varying(128),
+    mime_type character varying(255),
+    owner character varying(255),
+    ocfl_version character varying(32),
+    created timestamp
+);
@@ -0,0 +1,8 @@
+-- Events waiting to be sent to JMS queues
+
+CREATE TABLE public.pass_outbox_event (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    queue character varying(255) NOT NULL,
+    type character varying(255) NOT NULL,
+    message text NOT NULL
+);
@@ -0,0 +1,22 @@
+-- Store Submission.metadata as jsonb so it may be queried and indexed.
+-- Metadata which is empty or not valid JSON cannot be stored as jsonb. It is kept in metadata_legacy and set to null.
+-- The migration fails if any other value cannot be converted.
+
+CREATE FUNCTION pg_temp.pass_is_json(value text) RETURNS boolean AS $$
+BEGIN
+    PERFORM value::jsonb;
+    RETURN true;
+EXCEPTION WHEN invalid_text_representation THEN
+    RETURN false;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE public.pass_submission ADD COLUMN metadata_legacy text;
+
+UPDATE public.pass_submission SET metadata_legacy = metadata, metadata = NULL
+    WHERE metadata IS NOT NULL AND NOT pg_temp.pass_is_json(metadata);
+
+ALTER TABLE public.pass_submission ALTER COLUMN metadata TYPE jsonb USING metadata::jsonb;
+
+-- Supports searching metadata by key and value with the containment operator
+CREATE INDEX pass_submission_metadata_ix ON public.pass_submission USING gin (metadata jsonb_path_ops);
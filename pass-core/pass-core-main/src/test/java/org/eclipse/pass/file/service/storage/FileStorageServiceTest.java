@@ -27,11 +27,27 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import edu.wisc.library.ocfl.api.exception.NotFoundException;
 import okhttp3.Credentials;
@@ -47,7 +63,6 @@ import org.json.JSONObject;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockMultipartFile;
 
@@ -73,6 +88,8 @@ public class FileStorageServiceTest extends IntegrationTest {
     protected FileStorageService storageService;
     @Autowired
     protected StorageConfiguration storageConfiguration;
+    @Autowired
+    protected FileMetadataRepository metadataRepository;
 
     /**
      * Cleanup the FileStorageService after testing. Deletes the root directory.
@@ -105,12 +122,60 @@ public class FileStorageServiceTest extends IntegrationTest {
     void getFileShouldReturnFile() throws IOException {
         StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test", "test.txt",
                 Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), "Test Pass-core".getBytes()), USER_NAME);
-        ByteArrayResource file = storageService.getFile(storageFile.getId());
+        StorageResource file = storageService.getFile(storageFile.getId());
         assertTrue(file.contentLength() > 0);
     }
 
     /**
-     * Test that temporary files are cleaned up after being persisted.
+     * File larger than the S3 part size is stored and read back in full, from a position, and in a short range.
+     * With S3 the file is uploaded and downloaded in parts.
+     */
+    @Test
+    void storeAndGetFileInParts() throws IOException {
+        byte[] content = new byte[12 * 1024 * 1024 + 7];
+        new Random(1).nextBytes(content);
+        StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test", "large.bin",
+                Objects.requireNonNull(MEDIA_TYPE_APPLICATION).toString(), content), USER_NAME);
+        StorageResource file = storageService.getFile(storageFile.getId());
+        assertEquals(content.length, file.contentLength());
+
+        try (InputStream in = file.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+
+        int position = 6 * 1024 * 1024 + 3;
+
+        try (InputStream in = file.getInputStream()) {
+            assertEquals(position, in.skip(position));
+            assertArrayEquals(Arrays.copyOfRange(content, position, content.length), in.readAllBytes());
+        }
+
+        // A short range is read and the rest of the file is not
+        try (InputStream in = file.getInputStream()) {
+            assertEquals(position, in.skip(position));
+            assertArrayEquals(Arrays.copyOfRange(content, position, position + 100), in.readNBytes(100));
+        }
+    }
+
+    /**
+     * File is stored and then streamed from storage starting at a position.
+     */
+    @Test
+    void getFileShouldStreamFromPosition() throws IOException {
+        StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test", "test.txt",
+                Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), "Test Pass-core".getBytes()), USER_NAME);
+        StorageResource file = storageService.getFile(storageFile.getId());
+        assertEquals(14, file.contentLength());
+        assertNotNull(file.getETag());
+
+        try (InputStream in = file.getInputStream()) {
+            assertEquals(5, in.skip(5));
+            assertEquals("Pass-core", new String(in.readAllBytes()));
+        }
+    }
+
+    /**
+     * Test that staged files are cleaned up after being persisted. Uploads are staged in the OCFL work directory.
      * @throws IOException if there is an error
      */
     @Test
@@ -118,12 +183,88 @@ public class FileStorageServiceTest extends IntegrationTest {
         storageService.storeFile(new MockMultipartFile("test", "test.txt",
                 Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), "Test Pass-core".getBytes()), USER_NAME);
 
+        assertEquals(0, Objects.requireNonNull(get_work_dir().toFile().listFiles()).length);
+    }
+
+    /**
+     * Store, get, and delete files concurrently. Each operation must succeed and no files may remain in the OCFL work
+     * directory.
+     *
+     * @throws Exception if there is an error
+     */
+    @Test
+    void concurrentStoreGetDelete() throws Exception {
+        int threads = 8;
+        int ops = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < ops; i++) {
+                        byte[] data = ("Concurrent " + thread + " " + i).repeat(1000).getBytes();
+                        StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test",
+                                "test" + thread + ".txt", Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), data),
+                                USER_NAME);
+
+                        try (InputStream in = storageService.getFile(storageFile.getId()).getInputStream()) {
+                            assertArrayEquals(data, in.readAllBytes());
+                        }
+
+                        storageService.deleteFile(storageFile.getId());
+                        assertThrows(IOException.class, () -> storageService.getFile(storageFile.getId()));
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, Objects.requireNonNull(get_work_dir().toFile().listFiles()).length);
+    }
+
+    /**
+     * Orphaned staging files are removed while recent ones are kept.
+     *
+     * @throws IOException if there is an error
+     */
+    @Test
+    void cleanupStagingRemovesOrphans() throws IOException {
+        Path tempDir = get_temp_dir();
+        Path orphan = Files.createTempDirectory(tempDir, "orphan");
+        Files.writeString(orphan.resolve("orphan.txt"), "orphan");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(FileStorageService.STAGING_MAX_AGE)
+                .minus(Duration.ofMinutes(1))));
+        Path recent = Files.createTempDirectory(tempDir, "recent");
+
+        storageService.cleanupStaging();
+
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(recent));
+        Files.delete(recent);
+    }
+
+    private Path get_temp_dir() {
+        return get_storage_dir(storageConfiguration.getStorageProperties().getStorageTempDir());
+    }
+
+    private Path get_work_dir() {
+        return get_storage_dir(storageConfiguration.getStorageProperties().getStorageWorkDir());
+    }
+
+    private Path get_storage_dir(String dirName) {
         Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
         String rootDirName = storageConfiguration.getStorageProperties().getStorageRootDir();
-        String tempDirName = storageConfiguration.getStorageProperties().getStorageTempDir();
-        int fileCount = Objects.requireNonNull(tempDir.resolve(Paths.get(rootDirName, tempDirName))
-                .toFile().listFiles()).length;
-        assertEquals(0, fileCount);
+        return tempDir.resolve(Paths.get(rootDirName, dirName));
     }
 
     /**
@@ -197,6 +338,59 @@ public class FileStorageServiceTest extends IntegrationTest {
         assertTrue(exceptionText.matches("(.)+(was not found)(.)+"));
     }
 
+    /**
+     * Store file and check that its metadata is recorded in the index.
+     */
+    @Test
+    void storeFileRecordsMetadata() throws IOException, NoSuchAlgorithmException {
+        byte[] content = "Test Pass-core".getBytes();
+        StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test", "test.txt",
+                Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), content), USER_NAME);
+        FileMetadata metadata = metadataRepository.findById(storageFile.getId()).orElseThrow();
+
+        assertEquals(content.length, metadata.getSize());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-512").digest(content)),
+                metadata.getDigest());
+        assertEquals("text/plain", metadata.getMimeType());
+        assertEquals(USER_NAME, metadata.getOwner());
+        assertEquals("v1", metadata.getOcflVersion());
+        assertEquals(metadata.getDigest(), storageService.getFile(storageFile.getId()).getETag());
+    }
+
+    /**
+     * Files stored before the index existed are added to it when first used.
+     */
+    @Test
+    void getFileIndexesUnindexedFile() throws IOException {
+        byte[] content = "Test Pass-core".getBytes();
+        StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test", "test.txt",
+                Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), content), USER_NAME);
+        FileMetadata expected = metadataRepository.findById(storageFile.getId()).orElseThrow();
+        metadataRepository.deleteById(storageFile.getId());
+
+        assertEquals(USER_NAME, storageService.getFileOwner(storageFile.getId()));
+
+        FileMetadata metadata = metadataRepository.findById(storageFile.getId()).orElseThrow();
+        assertEquals(expected.getSize(), metadata.getSize());
+        assertEquals(expected.getDigest(), metadata.getDigest());
+        assertEquals(expected.getMimeType(), metadata.getMimeType());
+        assertEquals(expected.getOcflVersion(), metadata.getOcflVersion());
+        assertEquals(expected.getOwner(), metadata.getOwner());
+        assertEquals(expected.getCreated(), metadata.getCreated());
+    }
+
+    /**
+     * Store file, then delete it. The metadata of the file should be removed from the index.
+     */
+    @Test
+    void deleteFileRemovesMetadata() throws IOException {
+        StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test", "test.txt",
+                Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), "Test Pass-core".getBytes()), USER_NAME);
+        storageService.deleteFile(storageFile.getId());
+        assertFalse(metadataRepository.existsById(storageFile.getId()));
+        assertThrows(IOException.class, () -> storageService.getFile(storageFile.getId()));
+    }
+
     /**
      * Store file, and then check user permissions on that file. User has permissions to delete file.
      *
@@ -235,7 +429,7 @@ public class FileStorageServiceTest extends IntegrationTest {
         StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test", "test.txt",
                 Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), "Test Pass-core".getBytes()), USER_NAME);
 
-        ByteArrayResource file = storageService.getFile(storageFile.getId());
+        StorageResource file = storageService.getFile(storageFile.getId());
         //ensure that the file has been stored by the service
         assertTrue(file.contentLength() > 0);
 
@@ -365,6 +559,41 @@ public class FileStorageServiceTest extends IntegrationTest {
         }
     }
 
+    /**
+     * Test range and conditional downloads using the PassFileServiceController.
+     *
+     * @throws IOException if there is an error
+     */
+    @Test
+    void getFileRangeAndConditional() throws IOException {
+        StorageFile storageFile = storageService.storeFile(new MockMultipartFile("test", "test.txt",
+                Objects.requireNonNull(MEDIA_TYPE_TEXT).toString(), "Test Pass-core".getBytes()), USER_NAME);
+        String url = getBaseUrl() + "file/" + storageFile.getId();
+        String etag;
+
+        try (Response response = httpClient.newCall(new Request.Builder().url(url)
+                .header("Authorization", credentialsBackend).build()).execute()) {
+            assertEquals(HttpStatus.OK.value(), response.code());
+            assertEquals("bytes", response.header("Accept-Ranges"));
+            assertNotNull(response.header("Last-Modified"));
+            etag = response.header("ETag");
+            assertNotNull(etag);
+            assertEquals("Test Pass-core", Objects.requireNonNull(response.body()).string());
+        }
+
+        try (Response response = httpClient.newCall(new Request.Builder().url(url)
+                .header("Authorization", credentialsBackend).header("Range", "bytes=5-8").build()).execute()) {
+            assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.code());
+            assertEquals("bytes 5-8/14", response.header("Content-Range"));
+            assertEquals("Pass", Objects.requireNonNull(response.body()).string());
+        }
+
+        try (Response response = httpClient.newCall(new Request.Builder().url(url)
+                .header("Authorization", credentialsBackend).header("If-None-Match", etag).build()).execute()) {
+            assertEquals(HttpStatus.NOT_MODIFIED.value(), response.code());
+        }
+    }
+
     /**
      * Attempt to upload a file, that has file missing in the body. Should return 400 Bad Request.
      * @throws IOException if there is an error
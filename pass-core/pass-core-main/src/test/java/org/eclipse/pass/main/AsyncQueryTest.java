@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.yahoo.elide.RefreshableElide;
+import okhttp3.Credentials;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.eclipse.pass.main.async.TableExportCleaner;
+import org.eclipse.pass.object.ElidePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.model.Journal;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class AsyncQueryTest extends IntegrationTest {
+    private final static String JSON_API_CONTENT_TYPE = "application/vnd.api+json";
+    private final static MediaType JSON_API_MEDIA_TYPE = MediaType.parse("application/vnd.api+json; charset=utf-8");
+    private final static String JOURNAL_NAME = "Async journal";
+
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    @Autowired
+    protected TableExportCleaner tableExportCleaner;
+
+    private final OkHttpClient client = new OkHttpClient();
+
+    @BeforeAll
+    public void setupJournals() throws IOException {
+        try (PassClient pass_client = new ElidePassClient(refreshableElide)) {
+            for (int i = 0; i < 10; i++) {
+                Journal journal = new Journal();
+                journal.setJournalName(JOURNAL_NAME);
+                pass_client.createObject(journal);
+            }
+        }
+    }
+
+    private Request.Builder request(String url) {
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+            .header("Authorization", Credentials.basic(BACKEND_USER, BACKEND_PASSWORD));
+    }
+
+    // Submit an async request and return its attributes once it is complete
+    private JSONObject execute(String type, JSONObject attributes) throws IOException, JSONException,
+            InterruptedException {
+        String id = UUID.randomUUID().toString();
+        JSONObject data = new JSONObject();
+        data.put("type", type);
+        data.put("id", id);
+        data.put("attributes", attributes);
+
+        RequestBody body = RequestBody.create(new JSONObject().put("data", data).toString(), JSON_API_MEDIA_TYPE);
+
+        try (Response response = client.newCall(request(getBaseUrl() + "data/" + type).post(body).build())
+                .execute()) {
+            assertEquals(201, response.code());
+        }
+
+        for (int i = 0; i < 60; i++) {
+            try (Response response = client.newCall(request(getBaseUrl() + "data/" + type + "/" + id).get()
+                    .build()).execute()) {
+                assertEquals(200, response.code());
+
+                JSONObject result = new JSONObject(response.body().string()).getJSONObject("data")
+                    .getJSONObject("attributes");
+
+                if ("COMPLETE".equals(result.getString("status"))) {
+                    return result;
+                }
+            }
+
+            Thread.sleep(500);
+        }
+
+        throw new AssertionError("Async request did not complete: " + id);
+    }
+
+    @Test
+    public void testAsyncQuery() throws Exception {
+        JSONObject attributes = new JSONObject();
+        attributes.put("query", "/journal?filter[journal]=journalName=='" + JOURNAL_NAME + "'");
+        attributes.put("queryType", "JSONAPI_V1_0");
+        attributes.put("status", "QUEUED");
+
+        JSONObject result = execute("asyncQuery", attributes).getJSONObject("result");
+
+        assertEquals(200, result.getInt("httpStatus"));
+        assertEquals(10, result.getInt("recordCount"));
+        assertEquals(10, new JSONObject(result.getString("responseBody")).getJSONArray("data").length());
+    }
+
+    @Test
+    public void testTableExport() throws Exception {
+        JSONObject attributes = new JSONObject();
+        attributes.put("query", "/journal?fields[journal]=journalName&filter[journal]=journalName=='"
+            + JOURNAL_NAME + "'");
+        attributes.put("queryType", "JSONAPI_V1_0");
+        attributes.put("resultType", "CSV");
+        attributes.put("status", "QUEUED");
+
+        JSONObject result = execute("tableExport", attributes).getJSONObject("result");
+
+        assertEquals(200, result.getInt("httpStatus"));
+        assertEquals(10, result.getInt("recordCount"));
+
+        // Download the export from this server
+        String path = HttpUrl.parse(result.getString("url")).encodedPath();
+
+        try (Response response = client.newCall(request(getBaseUrl() + path.substring(1)).get().build())
+                .execute()) {
+            assertEquals(200, response.code());
+
+            String csv = response.body().string();
+            assertTrue(csv.contains(JOURNAL_NAME));
+            assertEquals(11, csv.trim().split("\n").length);
+        }
+    }
+
+    @Test
+    public void testTableExportCleanup() throws Exception {
+        Path expired = tableExportCleaner.getExportDir().resolve("expired.csv");
+        Path recent = tableExportCleaner.getExportDir().resolve("recent.csv");
+        Files.writeString(expired, "expired");
+        Files.writeString(recent, "recent");
+        Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(Duration.ofDays(8))));
+
+        tableExportCleaner.cleanup();
+
+        assertFalse(Files.exists(expired));
+        assertTrue(Files.exists(recent));
+        Files.delete(recent);
+    }
+}
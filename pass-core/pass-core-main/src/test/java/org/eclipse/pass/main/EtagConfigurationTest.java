@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+
+import com.yahoo.elide.RefreshableElide;
+import okhttp3.Credentials;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.pass.object.ElidePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.model.Journal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class EtagConfigurationTest extends IntegrationTest {
+    private final static String JSON_API_CONTENT_TYPE = "application/vnd.api+json";
+
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    private final OkHttpClient client = new OkHttpClient();
+
+    private Request.Builder get(String url) {
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+                .header("Authorization", Credentials.basic(BACKEND_USER, BACKEND_PASSWORD)).get();
+    }
+
+    @Test
+    public void testConditionalGet() throws IOException {
+        Journal journal = new Journal();
+        journal.setJournalName("ETag journal");
+
+        try (PassClient pass_client = new ElidePassClient(refreshableElide)) {
+            pass_client.createObject(journal);
+        }
+
+        String url = getBaseUrl() + "data/journal/" + journal.getId();
+        String etag;
+
+        try (Response response = client.newCall(get(url).build()).execute()) {
+            assertEquals(200, response.code());
+            etag = response.header("ETag");
+            assertNotNull(etag);
+        }
+
+        // Unchanged object is not returned
+        try (Response response = client.newCall(get(url).header("If-None-Match", etag).build()).execute()) {
+            assertEquals(304, response.code());
+            assertEquals("", response.body().string());
+        }
+
+        journal.setJournalName("Changed ETag journal");
+
+        try (PassClient pass_client = new ElidePassClient(refreshableElide)) {
+            pass_client.updateObject(journal);
+        }
+
+        // Changed object is returned with a new ETag
+        try (Response response = client.newCall(get(url).header("If-None-Match", etag).build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotEquals(etag, response.header("ETag"));
+        }
+    }
+
+    @Test
+    public void testCollectionWithoutEtag() throws IOException {
+        Journal journal = new Journal();
+        journal.setJournalName("Unbuffered journal");
+
+        try (PassClient pass_client = new ElidePassClient(refreshableElide)) {
+            pass_client.createObject(journal);
+        }
+
+        // Collections are not buffered to compute an ETag
+        try (Response response = client.newCall(get(getBaseUrl() + "data/journal").build()).execute()) {
+            assertEquals(200, response.code());
+            assertNull(response.header("ETag"));
+        }
+    }
+}
@@ -18,6 +18,9 @@ import javax.json.stream.JsonParser;
 import javax.json.stream.JsonParser.Event;
 
 import com.yahoo.elide.RefreshableElide;
+import org.eclipse.pass.main.outbox.OutboxEvent;
+import org.eclipse.pass.main.outbox.OutboxRelay;
+import org.eclipse.pass.main.repository.OutboxEventRepository;
 import org.eclipse.pass.object.ElidePassClient;
 import org.eclipse.pass.object.PassClient;
 import org.eclipse.pass.object.model.Deposit;
@@ -49,6 +52,12 @@ public class JmsConfigurationTest extends IntegrationTest {
     @Autowired
     private TokenFactory userTokenFactory;
 
+    @Autowired
+    private OutboxEventRepository outbox;
+
+    @Autowired
+    private OutboxRelay relay;
+
     private PassClient client;
 
     private void clear_queue(String queue) throws JMSException {
@@ -185,4 +194,68 @@ public class JmsConfigurationTest extends IntegrationTest {
         assertEquals(dep.getId().toString(), result.getString(JmsConfiguration.DEPOSIT_KEY));
         assertEquals(JmsConfiguration.DEPOSIT_MESSAGE_TYPE, result.getString(JmsConfiguration.TYPE_KEY));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOutboxRelay() throws JMSException {
+        String queue = jmsConfig.getDepositQueue();
+        int count = OutboxRelay.BATCH_SIZE + 5;
+
+        for (int i = 0; i < count; i++) {
+            outbox.save(new OutboxEvent(queue, JmsConfiguration.DEPOSIT_MESSAGE_TYPE, "{\"deposit\": \"" + i + "\"}"));
+        }
+
+        relay.relay();
+
+        assertEquals(0, outbox.count());
+
+        // Messages are sent in order
+        for (int i = 0; i < count; i++) {
+            JsonObject result = get_json_message(queue, JmsConfiguration.DEPOSIT_MESSAGE_TYPE);
+            assertEquals("" + i, result.getString(JmsConfiguration.DEPOSIT_KEY));
+        }
+    }
+
+    @Test
+    public void testOutboxRelayCoalesce() throws JMSException {
+        String queue = jmsConfig.getSubmissionQueue();
+        String first = "{\"submission\": \"1\"}";
+        String second = "{\"submission\": \"2\"}";
+
+        // Identical events are only sent once
+        outbox.save(new OutboxEvent(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE, first));
+        outbox.save(new OutboxEvent(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE, second));
+        outbox.save(new OutboxEvent(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE, first));
+        outbox.save(new OutboxEvent(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE, first));
+
+        relay.relay();
+
+        assertEquals(0, outbox.count());
+        assertEquals(2, count_queue(queue));
+        assertEquals("1", get_json_message(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE)
+                .getString(JmsConfiguration.SUBMISSION_KEY));
+        assertEquals("2", get_json_message(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE)
+                .getString(JmsConfiguration.SUBMISSION_KEY));
+    }
+
+    @Test
+    public void testOutboxRelayDoesNotCoalesceAcrossBatches() throws JMSException {
+        String queue = jmsConfig.getSubmissionQueue();
+        String first = "{\"submission\": \"first\"}";
+
+        outbox.save(new OutboxEvent(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE, first));
+
+        for (int i = 1; i < OutboxRelay.BATCH_SIZE; i++) {
+            outbox.save(new OutboxEvent(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE,
+                    "{\"submission\": \"" + i + "\"}"));
+        }
+
+        // Identical to an event in the first batch, but locked and removed by the second batch
+        outbox.save(new OutboxEvent(queue, JmsConfiguration.SUBMISSION_MESSAGE_TYPE, first));
+
+        relay.relay();
+
+        assertEquals(0, outbox.count());
+        assertEquals(OutboxRelay.BATCH_SIZE + 1, count_queue(queue));
+        clear_queue(queue);
+    }
+}
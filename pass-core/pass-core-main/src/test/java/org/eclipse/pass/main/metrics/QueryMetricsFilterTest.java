@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class QueryMetricsFilterTest {
+    @Test
+    public void testCountStatements() throws ServletException, IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QueryMetricsFilter filter = new QueryMetricsFilter(registry, 3);
+        QueryInspector inspector = new QueryInspector();
+
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                inspector.inspect("select * from pass_journal where id=?");
+                inspector.inspect("select * from pass_journal where id=?");
+                inspector.inspect("select * from pass_journal where id=?");
+                inspector.inspect("select * from pass_publisher where id=?");
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/data/journal"), new MockHttpServletResponse(), chain);
+
+        DistributionSummary statements = registry.get(QueryMetricsFilter.REQUEST_STATEMENTS).summary();
+        assertEquals(1, statements.count());
+        assertEquals(4.0, statements.totalAmount());
+        assertEquals(1.0, registry.get(QueryMetricsFilter.REPEATED_STATEMENTS).counter().count());
+
+        // Statements outside of a request are not counted
+        inspector.inspect("select * from pass_journal where id=?");
+        assertEquals(0, QueryInspector.end().size());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class AuthenticationCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testGetPut() {
+        AuthenticationCache<String> cache = new AuthenticationCache<>(10, 1, TimeUnit.MINUTES);
+
+        assertNull(cache.get("moo"));
+        cache.put("moo", "cow");
+        assertEquals("cow", cache.get("moo"));
+        cache.put("moo", "bull");
+        assertEquals("bull", cache.get("moo"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testExpiration() {
+        AuthenticationCache<String> cache = new AuthenticationCache<>(10, 10, TimeUnit.SECONDS, 2, clock::get);
+
+        cache.put("a", "1");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        cache.put("b", "2");
+
+        assertEquals("1", cache.get("a"));
+        assertEquals("2", cache.get("b"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        cache.removeExpired();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        AuthenticationCache<String> cache = new AuthenticationCache<>(2, 1, TimeUnit.MINUTES, 1, clock::get);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    public void testMaxSize() {
+        AuthenticationCache<String> cache = new AuthenticationCache<>(100, 1, TimeUnit.MINUTES);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("user" + i, "" + i);
+        }
+
+        // Each segment is bounded so the total may only reach the max size
+        assertTrue(cache.size() <= 100 + AuthenticationCache.DEFAULT_SEGMENTS);
+        assertEquals("999", cache.get("user999"));
+    }
+}
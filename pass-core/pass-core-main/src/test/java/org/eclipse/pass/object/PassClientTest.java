@@ -236,6 +236,13 @@ public abstract class PassClientTest extends IntegrationTest {
         assertEquals(1, result.getObjects().size());
         assertEquals(1, result.getTotal());
         assertEquals(result.getObjects().get(0).getAwardNumber(), "award:3");
+
+        PassClientSelector<Grant> selector = new PassClientSelector<>(Grant.class, 0, 5, filter, null);
+        selector.setTotals(false);
+        result = client.selectObjects(selector);
+
+        assertEquals(1, result.getObjects().size());
+        assertEquals(-1, result.getTotal());
     }
 
     @Test
@@ -267,10 +274,16 @@ public abstract class PassClientTest extends IntegrationTest {
         }
 
         String filter = RSQL.equals("pmid", pmid);
-        List<Publication> pubs = client.streamObjects(new PassClientSelector<>(Publication.class,
-                0, 2, filter, null)).collect(Collectors.toList());
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 2, filter, null);
+        List<Publication> pubs = client.streamObjects(selector).collect(Collectors.toList());
 
         assertEquals(num_pubs, pubs.size());
+        assertEquals(0, selector.getOffset());
+        assertTrue(selector.isTotals());
+        assertEquals(num_pubs, client.streamObjects(selector).spliterator().estimateSize());
+
+        selector.setTotals(false);
+        assertEquals(Long.MAX_VALUE, client.streamObjects(selector).spliterator().estimateSize());
 
         pubs.forEach(p -> {
             assertNotNull(p);
@@ -282,6 +295,41 @@ public abstract class PassClientTest extends IntegrationTest {
         });
     }
 
+    @Test
+    public void testStreamObjectsKeyset() throws IOException {
+        int num_pubs = 7;
+
+        String pmid = "pmid:" + UUID.randomUUID();
+        for (int i = 0; i < num_pubs; i++) {
+            Publication pub = new Publication();
+
+            pub.setTitle("Keyset title: " + i);
+            pub.setPmid(pmid);
+
+            client.createObject(pub);
+        }
+
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 2,
+                RSQL.or(RSQL.equals("pmid", pmid), RSQL.equals("pmid", pmid + "x")), "-title");
+        selector.setKeyset(true);
+
+        List<Publication> pubs = client.streamObjects(selector).collect(Collectors.toList());
+
+        assertEquals(num_pubs, pubs.size());
+        assertNull(selector.getAfterId());
+
+        for (int i = 1; i < num_pubs; i++) {
+            assertTrue(pubs.get(i - 1).getId() < pubs.get(i).getId());
+        }
+
+        selector.setAfterId(pubs.get(3).getId());
+        PassClientResult<Publication> result = client.selectObjects(selector);
+
+        assertEquals(2, result.getObjects().size());
+        assertEquals(pubs.get(4).getId(), result.getObjects().get(0).getId());
+        assertEquals(pubs.get(5).getId(), result.getObjects().get(1).getId());
+    }
+
     @Test
     public void testHasMember() throws IOException {
         User user = new User();
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import com.yahoo.elide.RefreshableElide;
+import org.eclipse.pass.main.IntegrationTest;
+import org.eclipse.pass.object.model.Journal;
+import org.eclipse.pass.object.model.Policy;
+import org.eclipse.pass.object.model.Repository;
+import org.eclipse.pass.object.model.Submission;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class SecondLevelCacheTest extends IntegrationTest {
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testCachedTypes() throws IOException {
+        Cache cache = entityManagerFactory.getCache();
+
+        Repository repo = new Repository();
+        repo.setName("Cached repository");
+
+        Policy policy = new Policy();
+        policy.setTitle("Cached policy");
+        policy.setRepositories(List.of(repo));
+
+        Journal journal = new Journal();
+        journal.setJournalName("Cached journal");
+        journal.setIssns(List.of("Print:1234-5678"));
+
+        Submission sub = new Submission();
+
+        try (PassClient client = new ElidePassClient(refreshableElide)) {
+            client.createObject(repo);
+            client.createObject(policy);
+            client.createObject(journal);
+            client.createObject(sub);
+        }
+
+        try (PassClient client = new ElidePassClient(refreshableElide)) {
+            assertEquals(1, client.getObject(Policy.class, policy.getId()).getRepositories().size());
+            client.getObject(Journal.class, journal.getId());
+            client.getObject(Submission.class, sub.getId());
+        }
+
+        assertTrue(cache.contains(Repository.class, repo.getId()));
+        assertTrue(cache.contains(Policy.class, policy.getId()));
+        assertTrue(cache.contains(Journal.class, journal.getId()));
+        assertFalse(cache.contains(Submission.class, sub.getId()));
+
+        // Updates are seen by later reads
+        journal.setJournalName("Updated cached journal");
+        journal.setIssns(List.of("Print:1234-5678", "Online:8765-4321"));
+
+        try (PassClient client = new ElidePassClient(refreshableElide)) {
+            client.updateObject(journal);
+        }
+
+        try (PassClient client = new ElidePassClient(refreshableElide)) {
+            Journal test = client.getObject(Journal.class, journal.getId());
+
+            assertEquals("Updated cached journal", test.getJournalName());
+            assertEquals(2, test.getIssns().size());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+
+import com.yahoo.elide.RefreshableElide;
+import okhttp3.Credentials;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.eclipse.pass.main.IntegrationTest;
+import org.eclipse.pass.object.model.Submission;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class SubmissionMetadataControllerTest extends IntegrationTest {
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    private final static String JSON_API_CONTENT_TYPE = "application/vnd.api+json";
+    private final static MediaType JSON_API_MEDIA_TYPE = MediaType.parse(JSON_API_CONTENT_TYPE);
+
+    private final OkHttpClient client = new OkHttpClient();
+
+    private Request.Builder request(String url) {
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+            .header("Authorization", Credentials.basic(BACKEND_USER, BACKEND_PASSWORD));
+    }
+
+    private RequestBody submission_body(Long id, String metadata) throws JSONException {
+        JSONObject data = new JSONObject().put("type", "submission")
+            .put("attributes", new JSONObject().put("metadata", metadata));
+
+        if (id != null) {
+            data.put("id", id.toString());
+        }
+
+        return RequestBody.create(new JSONObject().put("data", data).toString(), JSON_API_MEDIA_TYPE);
+    }
+
+    private Response get(HttpUrl url) throws IOException {
+        Request request = new Request.Builder().url(url)
+            .header("Authorization", Credentials.basic(BACKEND_USER, BACKEND_PASSWORD)).get().build();
+
+        return client.newCall(request).execute();
+    }
+
+    private Submission create_submission(String metadata) throws IOException {
+        Submission sub = new Submission();
+        sub.setMetadata(metadata);
+
+        try (PassClient pass_client = new ElidePassClient(refreshableElide)) {
+            pass_client.createObject(sub);
+        }
+
+        return sub;
+    }
+
+    @Test
+    public void testGetMetadata() throws IOException, JSONException {
+        Submission sub = create_submission("{\"doi\": \"10.1234/meta\", \"journal-title\": \"Moo\", "
+            + "\"authors\": [{\"author\": \"Bessie\"}]}");
+
+        HttpUrl url = HttpUrl.parse(getBaseUrl() + "metadata/submission/" + sub.getId()).newBuilder()
+            .addQueryParameter("key", "doi").addQueryParameter("key", "authors")
+            .addQueryParameter("key", "missing").build();
+
+        try (Response response = get(url)) {
+            assertEquals(200, response.code());
+
+            JSONObject result = new JSONObject(response.body().string());
+
+            assertEquals(2, result.length());
+            assertEquals("10.1234/meta", result.getString("doi"));
+            assertEquals("Bessie", result.getJSONArray("authors").getJSONObject(0).getString("author"));
+        }
+
+        // All metadata returned without keys
+        url = HttpUrl.parse(getBaseUrl() + "metadata/submission/" + sub.getId());
+
+        try (Response response = get(url)) {
+            assertEquals(200, response.code());
+            assertEquals(3, new JSONObject(response.body().string()).length());
+        }
+
+        url = HttpUrl.parse(getBaseUrl() + "metadata/submission/" + Long.MAX_VALUE);
+
+        try (Response response = get(url)) {
+            assertEquals(404, response.code());
+        }
+    }
+
+    @Test
+    public void testFindSubmissions() throws IOException, JSONException {
+        Submission sub1 = create_submission("{\"doi\": \"10.1234/find\", \"title\": \"One\"}");
+        create_submission("{\"doi\": \"10.1234/find-other\", \"title\": \"10.1234/find\"}");
+        create_submission(null);
+
+        HttpUrl url = HttpUrl.parse(getBaseUrl() + "metadata/submission").newBuilder()
+            .addQueryParameter("key", "doi").addQueryParameter("value", "10.1234/find").build();
+
+        try (Response response = get(url)) {
+            assertEquals(200, response.code());
+
+            JSONArray result = new JSONArray(response.body().string());
+
+            assertEquals(1, result.length());
+            assertEquals(sub1.getId().toString(), result.getString(0));
+        }
+    }
+
+    @Test
+    public void testInvalidMetadataRejected() throws IOException, JSONException {
+        String url = getBaseUrl() + "data/submission";
+
+        // Metadata must be valid JSON on every database
+        for (String metadata : new String[] {"foo", "", "{\"doi\": "}) {
+            try (Response response = client.newCall(request(url).post(submission_body(null, metadata)).build())
+                    .execute()) {
+                assertEquals(400, response.code());
+            }
+        }
+
+        Submission sub = create_submission("{\"doi\": \"10.1234/valid\"}");
+
+        try (Response response = client.newCall(request(url + "/" + sub.getId())
+                .patch(submission_body(sub.getId(), "foo")).build()).execute()) {
+            assertEquals(400, response.code());
+        }
+
+        // Valid metadata is returned as JSON with the same content
+        try (Response response = client.newCall(request(url + "/" + sub.getId())
+                .patch(submission_body(sub.getId(), "[1, \"two\"]")).build()).execute()) {
+            assertEquals(204, response.code());
+        }
+
+        try (Response response = client.newCall(request(url + "/" + sub.getId()).get().build()).execute()) {
+            assertEquals(200, response.code());
+
+            JSONArray metadata = new JSONArray(new JSONObject(response.body().string()).getJSONObject("data")
+                .getJSONObject("attributes").getString("metadata"));
+
+            assertEquals(2, metadata.length());
+            assertEquals("two", metadata.getString(1));
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.eclipse.pass.object;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -33,6 +34,8 @@ import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.core.pagination.PaginationImpl;
 import com.yahoo.elide.core.request.EntityProjection;
 import com.yahoo.elide.core.request.Pagination;
+import com.yahoo.elide.core.request.Sorting;
+import com.yahoo.elide.core.sort.SortingImpl;
 import com.yahoo.elide.core.type.ClassType;
 import org.eclipse.pass.object.model.PassEntity;
 
@@ -71,23 +74,32 @@ public class ElideDataStorePassClient implements PassClient {
     }
 
     private EntityProjection get_projection(RequestScope scope, PassClientSelector<?> selector) throws IOException {
-        Pagination pagination = new PaginationImpl(selector.getType(), selector.getOffset(), selector.getLimit(),
-                settings.getDefaultPageSize(), settings.getDefaultMaxPageSize(), true, false);
+        int offset = selector.isKeyset() ? 0 : selector.getOffset();
+        Pagination pagination = new PaginationImpl(selector.getType(), offset, selector.getLimit(),
+                settings.getDefaultPageSize(), settings.getDefaultMaxPageSize(), selector.isTotals(), false);
 
         FilterExpression filter = null;
+        String filter_string = selector.getEffectiveFilter();
 
-        if (selector.getFilter() != null) {
+        if (filter_string != null) {
             try {
                 MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
-                params.add("filter", selector.getFilter());
+                params.add("filter", filter_string);
                 filter = scope.getFilterDialect().parseGlobalExpression(scope.getPath(), params, scope.getApiVersion());
             } catch (ParseException e) {
-                throw new IOException("Failed to parse filter of selector: " + selector.getFilter(), e);
+                throw new IOException("Failed to parse filter of selector: " + filter_string, e);
             }
         }
 
-        return EntityProjection.builder().type(selector.getType()).pagination(pagination).filterExpression(filter)
-                .build();
+        EntityProjection.EntityProjectionBuilder builder = EntityProjection.builder().type(selector.getType())
+                .pagination(pagination).filterExpression(filter);
+
+        if (selector.isKeyset()) {
+            builder.sorting(new SortingImpl(Map.of("id", Sorting.SortOrder.asc), ClassType.of(selector.getType()),
+                    settings.getDictionary()));
+        }
+
+        return builder.build();
     }
 
     private String get_path(Class<?> type, Long id) {
@@ -149,7 +161,7 @@ public class ElideDataStorePassClient implements PassClient {
 
         long total = -1;
         Pagination pagination = proj.getPagination();
-        if (pagination != null) {
+        if (pagination != null && selector.isTotals()) {
             total = pagination.getPageTotals();
         }
 
@@ -243,17 +243,27 @@ public class ElidePassClient implements PassClient {
 
         MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
 
-        if (selector.getFilter() != null) {
-            params.add("filter", selector.getFilter());
+        String filter = selector.getEffectiveFilter();
+        if (filter != null) {
+            params.add("filter", filter);
         }
 
-        if (selector.getSorting() != null) {
-            params.add("sort", selector.getSorting());
+        if (selector.isKeyset()) {
+            params.add("sort", "id");
+            params.add("page[offset]", "0");
+        } else {
+            if (selector.getSorting() != null) {
+                params.add("sort", selector.getSorting());
+            }
+
+            params.add("page[offset]", "" + selector.getOffset());
         }
 
-        params.add("page[offset]", "" + selector.getOffset());
         params.add("page[limit]", "" + selector.getLimit());
-        params.add("page[totals]", null);
+
+        if (selector.isTotals()) {
+            params.add("page[totals]", null);
+        }
 
         ElideResponse response = elide.get(settings.getBaseUrl(), path, params, user, api_version);
 
@@ -267,11 +277,14 @@ public class ElidePassClient implements PassClient {
 
         JsonApiDocument doc = elide.getMapper().readJsonApiDocument(response.getBody());
 
-        Object totalval = doc.getMeta().getValue("page", Map.class).get("totalRecords");
         long total = -1;
 
-        if (totalval != null) {
-            total = Long.parseLong(totalval.toString());
+        if (selector.isTotals()) {
+            Object totalval = doc.getMeta().getValue("page", Map.class).get("totalRecords");
+
+            if (totalval != null) {
+                total = Long.parseLong(totalval.toString());
+            }
         }
 
         PassClientResult<T> result = new PassClientResult<>(total);
@@ -128,6 +128,8 @@ public interface PassClient extends Closeable {
 
     /**
      * Stream all objects in the repository matching the selector starting from the selector offset.
+     * If the selector uses keyset pagination, the stream starts after the selector afterId instead.
+     * The selector is not modified.
      *
      * @param <T> object type
      * @param selector determines which objects to retrieve
@@ -135,8 +137,11 @@ public interface PassClient extends Closeable {
      * @throws IOException if operation fails
      */
     default <T extends PassEntity> Stream<T> streamObjects(PassClientSelector<T> selector) throws IOException {
+        PassClientSelector<T> page_selector = new PassClientSelector<>(selector);
+
         Spliterator<T> iter = new Spliterator<T>() {
-            PassClientResult<T> result = selectObjects(selector);
+            PassClientResult<T> result = selectObjects(page_selector);
+            final long total = result.getTotal();
             int next = 0;
 
             @Override
@@ -146,15 +151,27 @@ public interface PassClient extends Closeable {
 
             @Override
             public long estimateSize() {
-                return result.getTotal();
+                return total < 0 ? Long.MAX_VALUE : total;
             }
 
             @Override
             public boolean tryAdvance(Consumer<? super T> consumer) {
                 if (next == result.getObjects().size()) {
                     try {
-                        selector.setOffset(selector.getOffset() + selector.getLimit());
-                        result = selectObjects(selector);
+                        if (page_selector.isKeyset()) {
+                            if (next == 0) {
+                                return false;
+                            }
+
+                            page_selector.setAfterId(result.getObjects().get(next - 1).getId());
+                        } else {
+                            page_selector.setOffset(page_selector.getOffset() + page_selector.getLimit());
+                        }
+
+                        // Only the first page needs the total
+                        page_selector.setTotals(false);
+
+                        result = selectObjects(page_selector);
                         next = 0;
                     } catch (IOException e) {
                         throw new RuntimeException(e);
@@ -21,6 +21,10 @@ import org.eclipse.pass.object.model.PassEntity;
  * PassClientSelector is used to select objects in the repository.
  * See <a href="https://elide.io/pages/guide/v6/10-jsonapi.html">Elide JSON-API</a> for information on the
  * sort and filter syntax.
+ * <p>
+ * Keyset pagination may be used instead of an offset. Matches are then returned in ascending id order
+ * starting after a given id and the offset and sorting are ignored. Unlike an offset, the cost of
+ * retrieving a page does not depend on how far into the total result list the page is.
  */
 public class PassClientSelector<T extends PassEntity> {
     private static final int DEFAULT_LIMIT = 500;
@@ -30,6 +34,9 @@ public class PassClientSelector<T extends PassEntity> {
     private Class<T> type;
     private String sorting;
     private String filter;
+    private boolean totals;
+    private boolean keyset;
+    private Long afterId;
 
     /**
      * Match all objects of the given type.
@@ -56,6 +63,23 @@ public class PassClientSelector<T extends PassEntity> {
         this.type = type;
         this.filter = filter;
         this.sorting = sorting;
+        this.totals = true;
+    }
+
+    /**
+     * Create a copy of a selector.
+     *
+     * @param selector to copy
+     */
+    public PassClientSelector(PassClientSelector<T> selector) {
+        this.offset = selector.offset;
+        this.limit = selector.limit;
+        this.type = selector.type;
+        this.filter = selector.filter;
+        this.sorting = selector.sorting;
+        this.totals = selector.totals;
+        this.keyset = selector.keyset;
+        this.afterId = selector.afterId;
     }
 
     /**
@@ -137,4 +161,68 @@ public class PassClientSelector<T extends PassEntity> {
     public void setFilter(String filter) {
         this.filter = filter;
     }
+
+    /**
+     * @return whether the total number of matches is requested
+     */
+    public boolean isTotals() {
+        return totals;
+    }
+
+    /**
+     * Calculating the total number of matches requires an extra query. The default is to request it.
+     * If it is not requested, the total of the result will be -1.
+     *
+     * @param totals whether to request the total number of matches
+     */
+    public void setTotals(boolean totals) {
+        this.totals = totals;
+    }
+
+    /**
+     * @return whether keyset pagination is used
+     */
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * If keyset pagination is used, matches are sorted by ascending id and only those with an id
+     * greater than afterId are returned. The offset and sorting are ignored.
+     *
+     * @param keyset whether to use keyset pagination
+     */
+    public void setKeyset(boolean keyset) {
+        this.keyset = keyset;
+    }
+
+    /**
+     * @return id which matches must be greater than or null for no restriction
+     */
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    /**
+     * Only used with keyset pagination. Set to the id of the last object of a page in
+     * order to retrieve the next page.
+     *
+     * @param afterId to set
+     */
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+
+    /**
+     * @return the filter restricted to ids after afterId if keyset pagination is used
+     */
+    String getEffectiveFilter() {
+        if (!keyset || afterId == null) {
+            return filter;
+        }
+
+        String after = RSQL.gt("id", afterId.toString());
+
+        return filter == null ? after : RSQL.and("(" + filter + ")", after);
+    }
 }
@@ -55,6 +55,24 @@ public class RSQL {
         return comparison(name, "!=", value);
     }
 
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return RSQL expression testing that object has a field gt value
+     */
+    public static String gt(String name, String value) {
+        return comparison(name, "=gt=", value);
+    }
+
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return RSQL expression testing that object has a field lt value
+     */
+    public static String lt(String name, String value) {
+        return comparison(name, "=lt=", value);
+    }
+
     /**
      * @param name Name of field
      * @param values Values of field
@@ -91,6 +109,23 @@ public class RSQL {
         return comparison(name, "=hasmember=", value);
     }
 
+    /**
+     * The expression is evaluated in a single query.
+     *
+     * @param name Name of a collection field
+     * @param values Values potentially in the collection
+     * @return RSQL expression testing that an object collection field contains any of the values
+     */
+    public static String hasAnyMember(String name, String... values) {
+        String[] expressions = new String[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            expressions[i] = hasMember(name, values[i]);
+        }
+
+        return or(expressions);
+    }
+
     private static String group_expressions(String op, String...expressions) {
         StringBuilder result = new StringBuilder();
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Provides access to parts of Submission metadata without retrieving whole Submissions.
+ * <p>
+ * GET /metadata/submission/{id}?key=k1&amp;key=k2 returns a JSON object with only the given top level keys of the
+ * metadata of a Submission. Without keys, all the metadata is returned.
+ * <p>
+ * GET /metadata/submission?key=k&amp;value=v returns a JSON array of ids of Submissions whose metadata has the
+ * string value v for the top level key k. On PostgreSQL the search uses an index on the metadata.
+ */
+@RestController
+public class SubmissionMetadataController {
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final ObjectMapper mapper;
+    private final DataSource dataSource;
+    private volatile Boolean postgres;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * @param dataSource used to determine the type of database
+     */
+    public SubmissionMetadataController(DataSource dataSource) {
+        this.mapper = new ObjectMapper();
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @param id of the Submission
+     * @param keys of metadata to return or none to return all metadata
+     * @return metadata with only the given keys
+     * @throws JsonProcessingException if the metadata is not valid JSON
+     */
+    @GetMapping(value = "/metadata/submission/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getMetadata(@PathVariable("id") Long id,
+            @RequestParam(name = "key", required = false) List<String> keys) throws JsonProcessingException {
+        List<String> result = em.createQuery("select s.metadata from Submission s where s.id = :id", String.class)
+            .setParameter("id", id).getResultList();
+
+        if (result.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        String metadata = result.get(0);
+        JsonNode node = metadata == null || metadata.isBlank() ? mapper.createObjectNode() : mapper.readTree(metadata);
+
+        if (keys == null || keys.isEmpty() || !node.isObject()) {
+            return ResponseEntity.ok(mapper.writeValueAsString(node));
+        }
+
+        ObjectNode projection = mapper.createObjectNode();
+
+        for (String key : keys) {
+            if (node.has(key)) {
+                projection.set(key, node.get(key));
+            }
+        }
+
+        return ResponseEntity.ok(mapper.writeValueAsString(projection));
+    }
+
+    /**
+     * @param key of metadata
+     * @param value of key
+     * @return ids of Submissions with metadata having the value for the key
+     * @throws JsonProcessingException on JSON error
+     * @throws SQLException if the database cannot be checked
+     */
+    @GetMapping(value = "/metadata/submission", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> findSubmissions(@RequestParam("key") String key,
+            @RequestParam("value") String value) throws JsonProcessingException, SQLException {
+        List<String> ids = is_postgres() ? find_postgres(key, value) : find_other(key, value);
+
+        return ResponseEntity.ok(mapper.writeValueAsString(ids));
+    }
+
+    private boolean is_postgres() throws SQLException {
+        Boolean result = postgres;
+
+        if (result == null) {
+            try (Connection conn = dataSource.getConnection()) {
+                result = POSTGRESQL.equals(conn.getMetaData().getDatabaseProductName());
+            }
+
+            postgres = result;
+        }
+
+        return result;
+    }
+
+    // Containment query which uses the metadata index
+    private List<String> find_postgres(String key, String value) throws JsonProcessingException {
+        String filter = mapper.writeValueAsString(mapper.createObjectNode().put(key, value));
+        List<String> result = new ArrayList<>();
+
+        em.createNativeQuery("select id from pass_submission where metadata @> cast(:filter as jsonb) order by id")
+            .setParameter("filter", filter).getResultList()
+            .forEach(id -> result.add(id.toString()));
+
+        return result;
+    }
+
+    // Narrow the candidates with a text match and then check the metadata
+    private List<String> find_other(String key, String value) {
+        String pattern = "%" + value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<String> result = new ArrayList<>();
+
+        List<Object[]> candidates = em.createQuery("select s.id, s.metadata from Submission s "
+                + "where s.metadata like :pattern escape '\\' order by s.id", Object[].class)
+            .setParameter("pattern", pattern).getResultList();
+
+        for (Object[] candidate : candidates) {
+            JsonNode node;
+
+            try {
+                node = mapper.readTree(candidate[1].toString());
+            } catch (JsonProcessingException e) {
+                continue;
+            }
+
+            JsonNode match = node.get(key);
+
+            if (match != null && match.isTextual() && match.asText().equals(value)) {
+                result.add(candidate[0].toString());
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.yahoo.elide.annotation.LifeCycleHookBinding.Operation;
+import com.yahoo.elide.annotation.LifeCycleHookBinding.TransactionPhase;
+import com.yahoo.elide.core.exceptions.BadRequestException;
+import com.yahoo.elide.core.lifecycle.LifeCycleHook;
+import com.yahoo.elide.core.security.ChangeSpec;
+import com.yahoo.elide.core.security.RequestScope;
+import org.eclipse.pass.object.model.Submission;
+
+/**
+ * Checks that the metadata of a Submission is valid JSON when it is created or its metadata is updated.
+ * <p>
+ * Submission metadata is stored as jsonb on PostgreSQL. It is validated so that every database accepts and returns
+ * the same values and invalid JSON is a client error rather than a database error.
+ */
+public class SubmissionMetadataHook implements LifeCycleHook<Submission> {
+    private static final ObjectReader READER = new ObjectMapper().readerFor(JsonNode.class)
+        .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+    @Override
+    public void execute(Operation operation, TransactionPhase phase, Submission sub, RequestScope scope,
+            Optional<ChangeSpec> changes) {
+        validateJson(sub.getMetadata());
+    }
+
+    private static void validateJson(String json) {
+        if (json == null) {
+            return;
+        }
+
+        try {
+            READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Submission metadata must be valid JSON: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object.converter;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+/**
+ * Hibernate type for a String holding JSON. On PostgreSQL the column is jsonb and the value is bound such that
+ * the database converts it. On other databases, such as H2, the column is text and the value is bound as a String.
+ */
+public class JsonStringType implements UserType {
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    // JDBC type used to bind values, determined from the database on first use
+    private volatile Integer bindType;
+
+    @Override
+    public int[] sqlTypes() {
+        return new int[] {Types.LONGVARCHAR};
+    }
+
+    @Override
+    public Class<String> returnedClass() {
+        return String.class;
+    }
+
+    @Override
+    public boolean equals(Object x, Object y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(Object x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public Object nullSafeGet(ResultSet rs, String[] names, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        return rs.getString(names[0]);
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, Object value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        int type = bind_type(st);
+
+        if (value == null) {
+            st.setNull(index, type);
+        } else {
+            st.setObject(index, value, type);
+        }
+    }
+
+    private int bind_type(PreparedStatement st) throws SQLException {
+        Integer result = bindType;
+
+        if (result == null) {
+            result = POSTGRESQL.equals(st.getConnection().getMetaData().getDatabaseProductName())
+                ? Types.OTHER : Types.VARCHAR;
+            bindType = result;
+        }
+
+        return result;
+    }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(Object value) {
+        return (Serializable) value;
+    }
+
+    @Override
+    public Object assemble(Serializable cached, Object owner) {
+        return cached;
+    }
+
+    @Override
+    public Object replace(Object original, Object target, Object owner) {
+        return original;
+    }
+}
@@ -17,11 +17,14 @@ package org.eclipse.pass.object.model;
 
 import java.net.URI;
 import java.util.Objects;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
 import com.yahoo.elide.annotation.Include;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * The funder or sponsor of Grant or award.
@@ -31,6 +34,8 @@ import com.yahoo.elide.annotation.Include;
 
 @Include
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "pass_funder")
 public class Funder extends PassEntity {
 
@@ -18,6 +18,7 @@ package org.eclipse.pass.object.model;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import javax.persistence.Cacheable;
 import javax.persistence.CollectionTable;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
@@ -26,6 +27,8 @@ import javax.persistence.Enumerated;
 import javax.persistence.Table;
 
 import com.yahoo.elide.annotation.Include;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Describes a Journal and the path of it's participation in PubMedCentral
@@ -35,6 +38,8 @@ import com.yahoo.elide.annotation.Include;
 
 @Include
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "pass_journal")
 public class Journal extends PassEntity {
     /**
@@ -47,6 +52,7 @@ public class Journal extends PassEntity {
      */
     @ElementCollection(targetClass = String.class)
     @CollectionTable(name = "pass_journal_issns")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<String> issns = new ArrayList<>();
 
     /**
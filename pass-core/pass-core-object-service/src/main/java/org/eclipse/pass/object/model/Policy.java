@@ -19,12 +19,15 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 
 import com.yahoo.elide.annotation.Include;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Describes a Policy. Policies determine the rules that need to be followed by a Submission.
@@ -33,6 +36,8 @@ import com.yahoo.elide.annotation.Include;
  */
 @Include
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "pass_policy")
 public class Policy extends PassEntity {
 
@@ -56,6 +61,7 @@ public class Policy extends PassEntity {
      * List of repositories that can satisfying this policy
      */
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Repository> repositories = new ArrayList<>();
 
     /**
@@ -19,6 +19,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
@@ -27,6 +28,8 @@ import javax.persistence.Table;
 import com.yahoo.elide.annotation.Include;
 import org.eclipse.pass.object.converter.IntegrationTypeToStringConverter;
 import org.eclipse.pass.object.converter.ListToURIStringConverter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Describes a Repository. A Repository is the target of a Deposit.
@@ -36,6 +39,8 @@ import org.eclipse.pass.object.converter.ListToURIStringConverter;
 
 @Include
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "pass_repository")
 public class Repository extends PassEntity {
 
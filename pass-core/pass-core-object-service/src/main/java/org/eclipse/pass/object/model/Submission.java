@@ -30,10 +30,15 @@ import javax.persistence.Version;
 
 import com.yahoo.elide.annotation.CreatePermission;
 import com.yahoo.elide.annotation.Include;
+import com.yahoo.elide.annotation.LifeCycleHookBinding;
+import com.yahoo.elide.annotation.LifeCycleHookBinding.Operation;
+import com.yahoo.elide.annotation.LifeCycleHookBinding.TransactionPhase;
 import com.yahoo.elide.annotation.UpdatePermission;
+import org.eclipse.pass.object.SubmissionMetadataHook;
 import org.eclipse.pass.object.converter.AggregatedDepositStatusToStringConverter;
 import org.eclipse.pass.object.converter.SourceToStringConverter;
 import org.eclipse.pass.object.converter.SubmissionStatusToStringConverter;
+import org.hibernate.annotations.Type;
 
 /**
  * Submission model. Contains details of work being submitted, where it is being deposited to, related Grants etc.
@@ -43,6 +48,8 @@ import org.eclipse.pass.object.converter.SubmissionStatusToStringConverter;
 
 @CreatePermission(expression = "User is Backend OR User is Submitter")
 @UpdatePermission(expression = "User is Backend OR Object part of User Submission")
+@LifeCycleHookBinding(operation = Operation.CREATE, phase = TransactionPhase.PREFLUSH,
+    hook = SubmissionMetadataHook.class)
 @Include
 @Entity
 @Table(name = "pass_submission")
@@ -52,9 +59,13 @@ public class Submission extends PassEntity {
     private Long version;
 
     /**
-     * Stringified JSON representation of metadata captured by the relevant repository forms
+     * Stringified JSON representation of metadata captured by the relevant repository forms.
+     * Must be valid JSON. Stored as jsonb on PostgreSQL.
      */
     @Column(columnDefinition = "text")
+    @Type(type = "org.eclipse.pass.object.converter.JsonStringType")
+    @LifeCycleHookBinding(operation = Operation.UPDATE, phase = TransactionPhase.PREFLUSH,
+        hook = SubmissionMetadataHook.class)
     private String metadata;
 
     /**
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+
+/**
+ * InputStream of a binary which knows the length of the binary if the server provided it.
+ * The bytes are read directly from the server as the stream is consumed.
+ * The stream must be closed in order to release the connection.
+ */
+public class BinaryInputStream extends FilterInputStream {
+    private final long contentLength;
+
+    /**
+     * @param in stream of the binary
+     * @param contentLength length of the binary in bytes or -1 if unknown
+     */
+    public BinaryInputStream(InputStream in, long contentLength) {
+        super(in);
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * @return length of the binary in bytes or -1 if unknown
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+}
@@ -3,27 +3,33 @@ package org.eclipse.pass.support.client;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.JsonAdapter.Factory;
 import com.squareup.moshi.JsonReader;
-import com.squareup.moshi.JsonReader.Token;
 import com.squareup.moshi.JsonWriter;
 import com.squareup.moshi.Moshi;
 import com.squareup.moshi.Types;
 import jsonapi.Document;
 import jsonapi.Document.IncludedSerialization;
 import jsonapi.JsonApiFactory;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
@@ -32,6 +38,9 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 import org.eclipse.pass.support.client.adapter.AggregatedDepositStatusAdapter;
 import org.eclipse.pass.support.client.adapter.AwardStatusAdapter;
 import org.eclipse.pass.support.client.adapter.CopyStatusAdapter;
@@ -62,16 +71,69 @@ import org.eclipse.pass.support.client.model.User;
 
 /**
  * PassClient implementation using https://github.com/MarkoMilos/jsonapi.
+ * <p>
+ * All clients in a JVM share a connection pool and by default a dispatcher. The async operations are executed by
+ * the dispatcher. The number of concurrent requests to the PASS API is limited by the max requests per host of the
+ * dispatcher. Requests beyond the limit are queued. The shared pool and dispatcher are configured by the optional
+ * system properties:
+ * <ul>
+ *   <li>pass.core.max.requests: max number of concurrent requests, default 128</li>
+ *   <li>pass.core.max.requests.per.host: max number of concurrent requests to a host, default 32</li>
+ *   <li>pass.core.max.idle.connections: max number of idle connections kept in the pool, default 32</li>
+ *   <li>pass.core.keep.alive.seconds: how long an idle connection is kept, default 300</li>
+ *   <li>pass.core.http.protocol: http1 to use HTTP/1.1, h2 to negotiate HTTP/2 over TLS, or h2c to use
+ *     HTTP/2 without TLS with prior knowledge, default http1</li>
+ * </ul>
+ * <p>
+ * Objects are created and updated in batches using the JSON Patch extension of JSON API supported by Elide.
+ * Each batch is a single request which is processed in a single transaction.
+ * <p>
+ * Objects retrieved by getObject may optionally be cached. See {@link #setCacheSize(int)}.
  */
 public class JsonApiPassClient implements PassClient {
     private final static String JSON_API_CONTENT_TYPE = "application/vnd.api+json";
     private final static MediaType JSON_API_MEDIA_TYPE = MediaType.parse("application/vnd.api+json; charset=utf-8");
+    private final static String JSON_PATCH_CONTENT_TYPE = "application/vnd.api+json; ext=jsonpatch";
+    private final static MediaType JSON_PATCH_MEDIA_TYPE = MediaType.parse(JSON_PATCH_CONTENT_TYPE);
+
+    private final static Class<?>[] MODEL_TYPES = {Deposit.class, File.class, Funder.class, Grant.class,
+        Journal.class, Policy.class, Publication.class, Repository.class, RepositoryCopy.class, Submission.class,
+        SubmissionEvent.class, User.class};
+
+    // Relationship binding is looked up once for all model types
+    private final static RelationshipBinder BINDER = new RelationshipBinder(MODEL_TYPES);
+
+    /**
+     * Max number of objects created or updated by a single request.
+     */
+    public final static int MAX_BATCH_SIZE = 100;
+
+    // Key of a cached JSON API document
+    private record CacheKey(Class<?> type, String id, String include, String fields) {}
+
+    // Cached JSON API document parsed into a tree and the ETag it was returned with
+    private record CacheEntry(String etag, Object json) {}
+
+    // Handles the response to a request. The response is closed after the handler returns.
+    @FunctionalInterface
+    private interface ResponseHandler<R> {
+        R handle(Response response) throws IOException;
+    }
 
     private final Moshi moshi;
     private final Moshi update_moshi;
+
+    // Adapters for each model type are created once and reused
+    private final Map<Class<?>, JsonAdapter<?>> adapters;
+    private final Map<Class<?>, JsonAdapter<?>> update_adapters;
+    private final Map<Class<?>, JsonAdapter<?>> list_adapters;
+
     private final String baseUrl;
     private final OkHttpClient client;
 
+    // Null if caching is disabled
+    private volatile Map<CacheKey, CacheEntry> cache;
+
     /**
      * Create a JsonApiClient.
      *
@@ -89,9 +151,32 @@ public class JsonApiPassClient implements PassClient {
      * @param pass    password of user
      */
     public JsonApiPassClient(String baseUrl, String user, String pass) {
+        this(baseUrl, user, pass, null);
+    }
+
+    /**
+     * Create a JsonApiClient which uses HTTP basic auth and has its own limit on the number of concurrent
+     * requests. The connection pool is still shared.
+     *
+     * @param baseUrl base url of PASS API
+     * @param user    user to connect as or null
+     * @param pass    password of user or null
+     * @param maxRequestsPerHost max number of concurrent requests to the PASS API
+     */
+    public JsonApiPassClient(String baseUrl, String user, String pass, int maxRequestsPerHost) {
+        this(baseUrl, user, pass, create_dispatcher(maxRequestsPerHost));
+    }
+
+    // Use the shared dispatcher if dispatcher is null
+    private JsonApiPassClient(String baseUrl, String user, String pass, Dispatcher dispatcher) {
         this.baseUrl = (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
 
-        OkHttpClient.Builder client_builder = new OkHttpClient.Builder();
+        // Derived clients share the connection pool
+        OkHttpClient.Builder client_builder = SharedHttpClient.get().newBuilder();
+
+        if (dispatcher != null) {
+            client_builder.dispatcher(dispatcher);
+        }
 
         if (user != null && pass != null) {
             client_builder.addInterceptor(new OkHttpBasicAuthInterceptor(user, pass));
@@ -102,12 +187,48 @@ public class JsonApiPassClient implements PassClient {
 
         // Serialize null value of attributes for the JSON API document
         update_moshi = create_moshi(true);
+
+        adapters = new ConcurrentHashMap<>();
+        update_adapters = new ConcurrentHashMap<>();
+        list_adapters = new ConcurrentHashMap<>();
+    }
+
+    private static Dispatcher create_dispatcher(int max_requests_per_host) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(max_requests_per_host);
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), max_requests_per_host));
+
+        return dispatcher;
+    }
+
+    /**
+     * Cache the objects retrieved by getObject. The cache is keyed by type, id, and included relationships.
+     * When the cache is full, the least recently used entry is evicted. A cached object is revalidated
+     * with the PASS API each time it is retrieved by a conditional request using its ETag. If the object is
+     * unchanged, the response has no body and the object is built from the cache. Otherwise the new object
+     * is returned and cached. A size of zero, the default, disables the cache.
+     *
+     * @param size max number of entries in the cache
+     */
+    public void setCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + size);
+        }
+
+        if (size == 0) {
+            cache = null;
+        } else {
+            cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                    return size() > size;
+                }
+            });
+        }
     }
 
     private Moshi create_moshi(boolean serialize_nulls) {
-        Factory factory = new JsonApiFactory.Builder().addTypes(Deposit.class, File.class,
-                Funder.class, Grant.class, Journal.class, Policy.class, Publication.class,
-                Repository.class, RepositoryCopy.class, Submission.class, SubmissionEvent.class, User.class).build();
+        Factory factory = new JsonApiFactory.Builder().addTypes(MODEL_TYPES).build();
 
         Moshi.Builder builder = new Moshi.Builder().add(factory);
 
@@ -135,6 +256,25 @@ public class JsonApiPassClient implements PassClient {
         return builder.build();
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> JsonAdapter<Document<T>> get_adapter(Class<T> type) {
+        return (JsonAdapter<Document<T>>) adapters.computeIfAbsent(type,
+            t -> moshi.adapter(Types.newParameterizedType(Document.class, t)));
+    }
+
+    // Adapter which serializes null values of attributes
+    @SuppressWarnings("unchecked")
+    private <T> JsonAdapter<Document<T>> get_update_adapter(Class<T> type) {
+        return (JsonAdapter<Document<T>>) update_adapters.computeIfAbsent(type,
+            t -> update_moshi.adapter(Types.newParameterizedType(Document.class, t)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> JsonAdapter<Document<List<T>>> get_list_adapter(Class<T> type) {
+        return (JsonAdapter<Document<List<T>>>) list_adapters.computeIfAbsent(type,
+            t -> moshi.adapter(Types.newParameterizedType(Document.class, Types.newParameterizedType(List.class, t))));
+    }
+
     private String get_url(PassEntity obj) {
         return get_url(obj.getClass(), obj.getId());
     }
@@ -150,24 +290,50 @@ public class JsonApiPassClient implements PassClient {
     }
 
     private String get_json_type(Class<?> type) {
-        String name = type.getSimpleName();
-
-        char[] chars = name.toCharArray();
-        chars[0] = Character.toLowerCase(chars[0]);
+        return RelationshipBinder.getJsonType(type);
+    }
 
-        return new String(chars);
+    // Execute the request and handle the response in the calling thread
+    private <R> R execute(Request request, ResponseHandler<R> handler) throws IOException {
+        try (Response response = client.newCall(request).execute()) {
+            return handler.handle(response);
+        }
     }
 
-    private String get_java_type(String json_type) {
-        char[] chars = json_type.toCharArray();
-        chars[0] = Character.toUpperCase(chars[0]);
+    // Queue the request with the dispatcher and handle the response in a dispatcher thread.
+    // Cancelling the returned future cancels the request.
+    private <R> CompletableFuture<R> enqueue(Request request, ResponseHandler<R> handler) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Call call = client.newCall(request);
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    result.complete(handler.handle(response));
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
 
-        return new String(chars);
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        return result;
     }
 
-    @Override
-    public <T extends PassEntity> void createObject(T obj) throws IOException {
-        JsonAdapter<Document<T>> adapter = moshi.adapter(Types.newParameterizedType(Document.class, obj.getClass()));
+    private <T extends PassEntity> Request create_request(T obj) {
+        @SuppressWarnings("unchecked")
+        JsonAdapter<Document<T>> adapter = get_adapter((Class<T>) obj.getClass());
 
         Document<T> doc = Document.with(obj).includedSerialization(IncludedSerialization.NONE).build();
 
@@ -175,25 +341,41 @@ public class JsonApiPassClient implements PassClient {
 
         String url = baseUrl + "data/" + get_json_type(obj.getClass());
         RequestBody body = RequestBody.create(json, JSON_API_MEDIA_TYPE);
-        Request request = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
                 .addHeader("Content-Type", JSON_API_CONTENT_TYPE).post(body).build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
+    private <T extends PassEntity> ResponseHandler<T> create_handler(T obj) {
+        @SuppressWarnings("unchecked")
+        JsonAdapter<Document<T>> adapter = get_adapter((Class<T>) obj.getClass());
+
+        return response -> {
             if (!response.isSuccessful()) {
-                throw new IOException(
-                        "Create failed: " + url + " returned " + response.code() + " " + response.body().string());
+                throw new IOException("Create failed: " + response.request().url() + " returned "
+                        + response.code() + " " + response.body().string());
             }
-            Document<T> result_doc = adapter.fromJson(response.body().string());
+            Document<T> result_doc = adapter.fromJson(response.body().source());
             obj.setId(result_doc.requireData().getId());
             setVersionIfNeeded(result_doc, obj);
-        }
+
+            return obj;
+        };
     }
 
     @Override
-    public <T extends PassEntity> void updateObject(T obj) throws IOException {
+    public <T extends PassEntity> void createObject(T obj) throws IOException {
+        execute(create_request(obj), create_handler(obj));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<T> createObjectAsync(T obj) {
+        return enqueue(create_request(obj), create_handler(obj));
+    }
+
+    private <T extends PassEntity> Request update_request(T obj) throws IOException {
         // Use adapters that will serialize null values for attributes
-        JsonAdapter<Document<T>> adapter = update_moshi.adapter(Types.newParameterizedType(Document.class,
-            obj.getClass()));
+        @SuppressWarnings("unchecked")
+        JsonAdapter<Document<T>> adapter = get_update_adapter((Class<T>) obj.getClass());
         Document<T> doc = Document.with(obj).includedSerialization(IncludedSerialization.NONE).build();
 
         String json = adapter.toJson(doc);
@@ -203,19 +385,158 @@ public class JsonApiPassClient implements PassClient {
 
         String url = get_url(obj);
         RequestBody body = RequestBody.create(json, JSON_API_MEDIA_TYPE);
-        Request request = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
                 .addHeader("Content-Type", JSON_API_CONTENT_TYPE).patch(body).build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
+    private <T extends PassEntity> ResponseHandler<T> update_handler(T obj) {
+        @SuppressWarnings("unchecked")
+        JsonAdapter<Document<T>> adapter = get_update_adapter((Class<T>) obj.getClass());
+
+        return response -> {
             if (!response.isSuccessful()) {
-                throw new IOException(
-                        "Update failed: " + url + " returned " + response.code() + " " + response.body().string());
+                throw new IOException("Update failed: " + response.request().url() + " returned "
+                        + response.code() + " " + response.body().string());
             }
-            Document<T> result_doc = adapter.fromJson(response.body().string());
+            Document<T> result_doc = adapter.fromJson(response.body().source());
             setVersionIfNeeded(result_doc, obj);
+
+            return obj;
+        };
+    }
+
+    @Override
+    public <T extends PassEntity> void updateObject(T obj) throws IOException {
+        execute(update_request(obj), update_handler(obj));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<T> updateObjectAsync(T obj) {
+        try {
+            return enqueue(update_request(obj), update_handler(obj));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> void createObjects(List<T> objs) throws IOException {
+        for (int i = 0; i < objs.size(); i += MAX_BATCH_SIZE) {
+            patch_batch(objs.subList(i, Math.min(objs.size(), i + MAX_BATCH_SIZE)), true);
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> void updateObjects(List<T> objs) throws IOException {
+        // The versions of objects are not returned by a batch update. Update versioned objects individually
+        // so their version stays current.
+        List<T> batch = new ArrayList<>();
+
+        for (T obj : objs) {
+            if (obj instanceof PassVersionedEntity) {
+                updateObject(obj);
+            } else {
+                batch.add(obj);
+
+                if (batch.size() == MAX_BATCH_SIZE) {
+                    patch_batch(batch, false);
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            patch_batch(batch, false);
+        }
+    }
+
+    // Return the resource object of a JSON API document
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> get_resource(String json) throws IOException {
+        try (Buffer buffer = new Buffer(); JsonReader reader = JsonReader.of(buffer.writeUtf8(json))) {
+            return (Map<String, Object>) ((Map<String, Object>) reader.readJsonValue()).get("data");
         }
     }
 
+    // Return a JSON Patch operation which adds or replaces an object.
+    // An added object is given a temporary id which is replaced when the object is created.
+    private <T extends PassEntity> Map<String, Object> patch_operation(T obj, boolean create) throws IOException {
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) obj.getClass();
+        Document<T> doc = Document.with(obj).includedSerialization(IncludedSerialization.NONE).build();
+        Map<String, Object> op = new LinkedHashMap<>();
+        Map<String, Object> resource;
+
+        if (create) {
+            resource = get_resource(get_adapter(type).toJson(doc));
+            resource.put("id", UUID.randomUUID().toString());
+
+            op.put("op", "add");
+            op.put("path", "/" + get_json_type(type));
+        } else {
+            // Null relationships are not serialized. Add any missing null to one relationships
+            resource = get_resource(add_null_relationships(get_update_adapter(type).toJson(doc),
+                    get_null_relationships(obj)));
+
+            op.put("op", "replace");
+            op.put("path", "/" + get_json_type(type) + "/" + obj.getId());
+        }
+
+        op.put("value", resource);
+
+        return op;
+    }
+
+    // Create or update a batch of objects in a single request
+    private <T extends PassEntity> void patch_batch(List<T> batch, boolean create) throws IOException {
+        Buffer buffer = new Buffer();
+
+        try (JsonWriter out = JsonWriter.of(buffer)) {
+            out.setSerializeNulls(true);
+            out.beginArray();
+
+            for (T obj : batch) {
+                out.jsonValue(patch_operation(obj, create));
+            }
+
+            out.endArray();
+        }
+
+        String url = baseUrl + "data";
+        RequestBody body = RequestBody.create(buffer.readByteString(), JSON_PATCH_MEDIA_TYPE);
+        Request request = new Request.Builder().url(url).header("Accept", JSON_PATCH_CONTENT_TYPE)
+                .addHeader("Content-Type", JSON_PATCH_CONTENT_TYPE).patch(body).build();
+
+        execute(request, response -> {
+            if (!response.isSuccessful()) {
+                throw new IOException("Batch " + (create ? "create" : "update") + " failed: " + url + " returned "
+                        + response.code() + " " + response.body().string());
+            }
+
+            if (create) {
+                // Each result is a JSON API document with the created object in the order of the operations
+                List<?> results = (List<?>) read_json(response);
+
+                if (results.size() != batch.size()) {
+                    throw new IOException("Batch create failed: " + url + " returned " + results.size()
+                            + " results for " + batch.size() + " objects");
+                }
+
+                for (int i = 0; i < batch.size(); i++) {
+                    T obj = batch.get(i);
+                    @SuppressWarnings("unchecked")
+                    JsonAdapter<Document<T>> adapter = get_adapter((Class<T>) obj.getClass());
+                    Document<T> result_doc = adapter.fromJsonValue(results.get(i));
+
+                    obj.setId(result_doc.requireData().getId());
+                    setVersionIfNeeded(result_doc, obj);
+                }
+            }
+
+            return null;
+        });
+    }
+
     private <T extends PassEntity> void setVersionIfNeeded(Document<T> resultDoc, T obj) {
         if (resultDoc.requireData() instanceof PassVersionedEntity passVersionedEntity) {
             Long version = passVersionedEntity.getVersion();
@@ -225,23 +546,7 @@ public class JsonApiPassClient implements PassClient {
 
     // Return all to one relationships that have a null value.
     private List<String> get_null_relationships(PassEntity entity) {
-        List<String> rels = new ArrayList<>();
-
-        for (Method m : entity.getClass().getMethods()) {
-            if (m.getName().startsWith("get") && PassEntity.class.isAssignableFrom(m.getReturnType())) {
-                try {
-                    if (m.invoke(entity) == null) {
-                        String rel = m.getName();
-                        rel = Character.toLowerCase(rel.charAt(3)) + rel.substring(4);
-                        rels.add(rel);
-                    }
-                } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                    throw new RuntimeException("Failed to invoke: " + m.getName(), e);
-                }
-            }
-        }
-
-        return rels;
+        return BINDER.getNullToOneRelationships(entity);
     }
 
     // Add the missing to one relationships with null values to the document
@@ -310,71 +615,38 @@ public class JsonApiPassClient implements PassClient {
         }
     }
 
-    // Return map of source object id to object relationships.
+    // Return map of source object id to object relationships from a parsed JSON API document.
     // Ignore any relationships whose target is included
-    private Map<String, List<Relationship>> get_relationships(String json_api_doc) throws IOException {
+    private Map<String, List<Relationship>> get_relationships(Object json_api_doc) {
         Map<String, List<Relationship>> result = new HashMap<>();
 
-        // Contains type_id for objects which are included in the document
-        Set<String> included = new HashSet<>();
+        if (!(json_api_doc instanceof Map)) {
+            return result;
+        }
 
-        try (Buffer buffer = new Buffer(); JsonReader reader = JsonReader.of(buffer.writeUtf8(json_api_doc))) {
-            reader.beginObject();
+        Map<?, ?> doc = (Map<?, ?>) json_api_doc;
+        Object data = doc.get("data");
 
-            while (reader.hasNext()) {
-                String top_name = reader.nextName();
+        if (data instanceof List) {
+            ((List<?>) data).forEach(o -> gather_relationships_from_data(result, o));
+        } else {
+            gather_relationships_from_data(result, data);
+        }
 
-                if (top_name.equals("data")) {
-                    Token next = reader.peek();
+        // Contains type_id for objects which are included in the document
+        Set<String> included = new HashSet<>();
 
-                    if (next == Token.BEGIN_ARRAY) {
-                        reader.beginArray();
-                        while (reader.hasNext()) {
-                            gather_relationships_from_data(result, reader, included);
-                        }
-                        reader.endArray();
-                    } else if (next == Token.BEGIN_OBJECT) {
-                        gather_relationships_from_data(result, reader, included);
-                    } else {
-                        reader.skipValue();
-                    }
-                } else if (top_name.equals("included")) {
-                    reader.beginArray();
-
-                    while (reader.hasNext()) {
-                        String id = null;
-                        String type = null;
-
-                        reader.beginObject();
-                        while (reader.hasNext()) {
-                            switch (reader.nextName()) {
-                                case "id":
-                                    id = reader.nextString();
-                                    break;
-
-                                case "type":
-                                    type = reader.nextString();
-                                    break;
-
-                                default:
-                                    reader.skipValue();
-                                    break;
-                            }
-                        }
-                        reader.endObject();
+        if (doc.get("included") instanceof List) {
+            ((List<?>) doc.get("included")).forEach(o -> {
+                if (o instanceof Map) {
+                    Object id = ((Map<?, ?>) o).get("id");
+                    Object type = ((Map<?, ?>) o).get("type");
 
-                        if (id != null && type != null) {
-                            included.add(type + "_" + id);
-                        }
+                    if (id != null && type != null) {
+                        included.add(type + "_" + id);
                     }
-
-                    reader.endArray();
-                } else {
-                    reader.skipValue();
                 }
-            }
-
-            reader.endObject();
+            });
         }
 
         // Prune relationship targets that are included in the document
@@ -390,128 +662,65 @@ public class JsonApiPassClient implements PassClient {
     }
 
     // Return relationships from a data object
-    private void gather_relationships_from_data(Map<String, List<Relationship>> result, JsonReader reader,
-            Set<String> included) throws IOException {
-        String id = null;
-        List<Relationship> rels = null;
-
-        reader.beginObject();
-        while (reader.hasNext()) {
-            String name = reader.nextName();
-
-            if (name.equals("relationships")) {
-                rels = parse_relationships(reader, included);
-            } else if (name.equals("id")) {
-                id = reader.nextString();
-            } else {
-                reader.skipValue();
-            }
+    private void gather_relationships_from_data(Map<String, List<Relationship>> result, Object data) {
+        if (!(data instanceof Map)) {
+            return;
+        }
+
+        Object id = ((Map<?, ?>) data).get("id");
+        Object rels = ((Map<?, ?>) data).get("relationships");
+
+        if (id == null || !(rels instanceof Map)) {
+            return;
         }
-        reader.endObject();
 
-        if (id != null && rels != null && rels.size() > 0) {
-            result.put(id, rels);
+        List<Relationship> list = parse_relationships((Map<?, ?>) rels);
+
+        if (list.size() > 0) {
+            result.put(id.toString(), list);
         }
     }
 
     // Parse the relationships object
-    private List<Relationship> parse_relationships(JsonReader reader, Set<String> included) throws IOException {
+    private List<Relationship> parse_relationships(Map<?, ?> rels) {
         List<Relationship> result = new ArrayList<>();
 
-        reader.beginObject();
-        while (reader.hasNext()) {
-            Relationship rel = new Relationship(reader.nextName());
-
-            reader.beginObject();
-            while (reader.hasNext()) {
-                if (reader.nextName().equals("data")) {
-                    Token next = reader.peek();
-
-                    if (next == Token.BEGIN_ARRAY) {
-                        reader.beginArray();
-                        rel.to_many = true;
+        rels.forEach((name, value) -> {
+            if (!(value instanceof Map)) {
+                return;
+            }
 
-                        while (reader.hasNext()) {
-                            fill_relationship(rel, reader);
-                        }
+            Relationship rel = new Relationship(name.toString());
+            Object data = ((Map<?, ?>) value).get("data");
 
-                        reader.endArray();
-                    } else if (next == Token.BEGIN_OBJECT) {
-                        rel.to_many = false;
-                        fill_relationship(rel, reader);
-                    } else {
-                        reader.skipValue();
-                    }
+            if (data instanceof List) {
+                rel.to_many = true;
+                ((List<?>) data).forEach(target -> fill_relationship(rel, target));
+            } else {
+                rel.to_many = false;
+                fill_relationship(rel, data);
+            }
 
-                    if (rel.targets.size() > 0) {
-                        result.add(rel);
-                    }
-                } else {
-                    reader.skipValue();
-                }
+            if (rel.targets.size() > 0) {
+                result.add(rel);
             }
-            reader.endObject();
-        }
-        reader.endObject();
+        });
 
         return result;
     }
 
     // Parse the data of a relationship target into a Relationship
-    private void fill_relationship(Relationship rel, JsonReader reader) throws IOException {
-        reader.beginObject();
-
-        String id = null;
-        String type = null;
-
-        while (reader.hasNext()) {
-            switch (reader.nextName()) {
-                case "id":
-                    id = reader.nextString();
-                    break;
-
-                case "type":
-                    type = reader.nextString();
-                    break;
-
-                default:
-                    reader.skipValue();
-                    break;
-            }
-        }
-
-        if (id != null && type != null) {
-            rel.targets.add(id);
-            rel.target_type = type;
-        }
-
-        reader.endObject();
-    }
-
-    // Create a PassEntity and set the id. It must have an appropriate constructor.
-    private Object create_target(String target_id, String class_name) {
-        try {
-            return Class.forName(class_name).getConstructor(String.class).newInstance(target_id);
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException | ClassNotFoundException e) {
-            throw new RuntimeException("Failed to create: " + class_name, e);
+    private void fill_relationship(Relationship rel, Object target) {
+        if (!(target instanceof Map)) {
+            return;
         }
-    }
-
-    // Set a value on an object using a set method.
-    private void set_value(Object obj, String set_method, Object value) {
-        try {
-            Class<?> value_class = value.getClass();
 
-            // Handle the set method taking a List instead of a List implementation
-            if (value instanceof List) {
-                value_class = List.class;
-            }
+        Object id = ((Map<?, ?>) target).get("id");
+        Object type = ((Map<?, ?>) target).get("type");
 
-            obj.getClass().getMethod(set_method, value_class).invoke(obj, value);
-        } catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException e) {
-            throw new RuntimeException("Failed to invoke: " + set_method, e);
+        if (id != null && type != null) {
+            rel.targets.add(id.toString());
+            rel.target_type = type.toString();
         }
     }
 
@@ -522,20 +731,7 @@ public class JsonApiPassClient implements PassClient {
             return;
         }
 
-        String target_class_name = "org.eclipse.pass.support.client.model." + get_java_type(rel.target_type);
-        Object target;
-
-        if (rel.to_many) {
-            List<Object> list = new ArrayList<>();
-            rel.targets.forEach(id -> {
-                list.add(create_target(id, target_class_name));
-            });
-            target = list;
-        } else {
-            target = create_target(rel.targets.get(0), target_class_name);
-        }
-
-        set_value(obj, "set" + get_java_type(rel.name), target);
+        BINDER.setRelationship(obj, rel.name, rel.target_type, rel.targets, rel.to_many);
     }
 
     private void set_relationships(Object obj, List<Relationship> rels) {
@@ -546,39 +742,114 @@ public class JsonApiPassClient implements PassClient {
         }
     }
 
-    @Override
-    public <T extends PassEntity> T getObject(Class<T> type, String id, String... include) throws IOException {
-        JsonAdapter<Document<T>> adapter = moshi.adapter(Types.newParameterizedType(Document.class, type));
+    // Parse the response body once into a tree which is used both to bind objects and find relationships
+    private Object read_json(Response response) throws IOException {
+        try (JsonReader reader = JsonReader.of(response.body().source())) {
+            return reader.readJsonValue();
+        }
+    }
+
+    private CacheKey get_cache_key(Class<?> type, String id, Map<Class<? extends PassEntity>, String[]> fields,
+            String... include) {
+        StringBuilder fields_key = new StringBuilder();
+        fields.forEach((t, f) -> fields_key.append(t.getName()).append('=').append(String.join(",", f)).append(';'));
+
+        return new CacheKey(type, id, include == null ? "" : String.join(",", include), fields_key.toString());
+    }
+
+    // Add the sparse fieldset of each type
+    private void add_fields(HttpUrl.Builder url_builder, Map<Class<? extends PassEntity>, String[]> fields) {
+        fields.forEach((type, names) -> {
+            url_builder.addQueryParameter("fields[" + get_json_type(type) + "]", String.join(",", names));
+        });
+    }
 
+    private Request get_request(Class<?> type, String id, Map<Class<? extends PassEntity>, String[]> fields,
+            CacheEntry cached, String... include) {
         HttpUrl.Builder url_builder = HttpUrl.parse(get_url(type, id)).newBuilder();
         if (include != null && include.length > 0) {
             url_builder.addQueryParameter("include", String.join(",", include));
         }
+        add_fields(url_builder, fields);
         HttpUrl url = url_builder.build();
 
-        Request request = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
-                .addHeader("Content-Type", JSON_API_CONTENT_TYPE).get().build();
+        Request.Builder builder = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+                .addHeader("Content-Type", JSON_API_CONTENT_TYPE).get();
 
-        String body;
-        try (Response response = client.newCall(request).execute()) {
+        // Only return the object if it has changed
+        if (cached != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
 
-            if (response.code() == 404) {
-                return null;
-            }
+        return builder.build();
+    }
 
-            body = response.body().string();
+    // The cache and key are null if caching is disabled. The cached entry is null if there is none.
+    private <T extends PassEntity> ResponseHandler<T> get_handler(Class<T> type, String id,
+            Map<CacheKey, CacheEntry> cache, CacheKey key, CacheEntry cached) {
+        JsonAdapter<Document<T>> adapter = get_adapter(type);
 
-            if (!response.isSuccessful()) {
-                throw new IOException("Get failed: " + url + " returned " + response.code() + " " + body);
+        return response -> {
+            Object json;
+
+            if (cached != null && response.code() == 304) {
+                json = cached.json();
+            } else {
+                if (response.code() == 404) {
+                    if (cache != null) {
+                        cache.remove(key);
+                    }
+
+                    return null;
+                }
+
+                if (!response.isSuccessful()) {
+                    throw new IOException("Get failed: " + response.request().url() + " returned "
+                            + response.code() + " " + response.body().string());
+                }
+
+                json = read_json(response);
+                String etag = response.header("ETag");
+
+                if (cache != null && etag != null) {
+                    cache.put(key, new CacheEntry(etag, json));
+                }
             }
-        }
 
-        Document<T> doc = adapter.fromJson(body);
-        T result = doc.requireData();
+            // Objects are always built from the document so callers cannot modify cached objects
+            Document<T> doc = adapter.fromJsonValue(json);
+            T result = doc.requireData();
 
-        set_relationships(result, get_relationships(body).get(id));
+            set_relationships(result, get_relationships(json).get(id));
 
-        return result;
+            return result;
+        };
+    }
+
+    @Override
+    public <T extends PassEntity> T getObject(Class<T> type, String id, String... include) throws IOException {
+        return getObject(type, id, Map.of(), include);
+    }
+
+    @Override
+    public <T extends PassEntity> T getObject(Class<T> type, String id,
+            Map<Class<? extends PassEntity>, String[]> fields, String... include) throws IOException {
+        Map<CacheKey, CacheEntry> cache = this.cache;
+        CacheKey key = cache == null ? null : get_cache_key(type, id, fields, include);
+        CacheEntry cached = cache == null ? null : cache.get(key);
+
+        return execute(get_request(type, id, fields, cached, include), get_handler(type, id, cache, key, cached));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<T> getObjectAsync(Class<T> type, String id,
+            String... include) {
+        Map<CacheKey, CacheEntry> cache = this.cache;
+        CacheKey key = cache == null ? null : get_cache_key(type, id, Map.of(), include);
+        CacheEntry cached = cache == null ? null : cache.get(key);
+
+        return enqueue(get_request(type, id, Map.of(), cached, include),
+                get_handler(type, id, cache, key, cached));
     }
 
     @Override
@@ -594,10 +865,20 @@ public class JsonApiPassClient implements PassClient {
         }
     }
 
-    @Override
-    public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector) throws IOException {
-        JsonAdapter<Document<List<T>>> adapter = moshi.adapter(
-                Types.newParameterizedType(Document.class, Types.newParameterizedType(List.class, selector.getType())));
+    // Return the filter of the selector restricted to ids after the keyset position if needed
+    private String get_filter(PassClientSelector<?> selector) {
+        String filter = selector.getFilter();
+
+        if (selector.isKeyset() && selector.getAfterId() != null) {
+            String after = RSQL.gt("id", selector.getAfterId());
+
+            filter = filter == null ? after : RSQL.and("(" + filter + ")", after);
+        }
+
+        return filter;
+    }
+
+    private Request select_request(PassClientSelector<?> selector) {
         HttpUrl.Builder url_builder = HttpUrl.parse(get_url(selector.getType(), null)).newBuilder();
 
         String[] include = selector.getInclude();
@@ -605,82 +886,223 @@ public class JsonApiPassClient implements PassClient {
             url_builder.addQueryParameter("include", String.join(",", include));
         }
 
-        if (selector.getFilter() != null) {
-            url_builder.addQueryParameter("filter", selector.getFilter());
+        add_fields(url_builder, selector.getFields());
+
+        String filter = get_filter(selector);
+        if (filter != null) {
+            url_builder.addQueryParameter("filter", filter);
         }
 
-        if (selector.getSorting() != null) {
-            url_builder.addQueryParameter("sort", selector.getSorting());
+        if (selector.isKeyset()) {
+            url_builder.addQueryParameter("sort", "id");
+            url_builder.addQueryParameter("page[offset]", "0");
+        } else {
+            if (selector.getSorting() != null) {
+                url_builder.addQueryParameter("sort", selector.getSorting());
+            }
+
+            url_builder.addQueryParameter("page[offset]", "" + selector.getOffset());
         }
 
-        url_builder.addQueryParameter("page[offset]", "" + selector.getOffset());
         url_builder.addQueryParameter("page[limit]", "" + selector.getLimit());
-        url_builder.addQueryParameter("page[totals]", null);
+
+        if (selector.isTotals()) {
+            url_builder.addQueryParameter("page[totals]", null);
+        }
 
         HttpUrl url = url_builder.build();
 
-        Request request = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
                 .addHeader("Content-Type", JSON_API_CONTENT_TYPE).get().build();
+    }
 
-        String body;
-        try (Response response = client.newCall(request).execute()) {
+    private <T extends PassEntity> ResponseHandler<PassClientResult<T>> select_handler(
+            PassClientSelector<T> selector) {
+        @SuppressWarnings("unchecked")
+        JsonAdapter<Document<List<T>>> adapter = get_list_adapter((Class<T>) selector.getType());
 
+        return response -> {
             if (response.code() == 404) {
                 return null;
             }
 
-            body = response.body().string();
-
             if (!response.isSuccessful()) {
-                throw new IOException("Select failed: " + url + " returned " + response.code() + " " + body);
+                throw new IOException("Select failed: " + response.request().url() + " returned "
+                        + response.code() + " " + response.body().string());
             }
-        }
 
-        Document<List<T>> doc = adapter.fromJson(body);
-        List<T> matches = doc.requireData();
-        long total = -1;
+            Object json = read_json(response);
+            Document<List<T>> doc = adapter.fromJsonValue(json);
+            List<T> matches = doc.requireData();
+            long total = -1;
 
-        if (doc.getMeta().has("page")) {
-            Map<?, ?> page = (Map<?, ?>) doc.getMeta().get("page");
+            if (doc.getMeta().has("page")) {
+                Map<?, ?> page = (Map<?, ?>) doc.getMeta().get("page");
 
-            if (page.containsKey("totalRecords")) {
-                total = ((Double) page.get("totalRecords")).longValue();
+                if (page.containsKey("totalRecords")) {
+                    total = ((Double) page.get("totalRecords")).longValue();
+                }
             }
-        }
 
-        Map<String, List<Relationship>> rels = get_relationships(body);
+            Map<String, List<Relationship>> rels = get_relationships(json);
 
-        matches.forEach(o -> {
-            set_relationships(o, rels.get(o.getId()));
-        });
+            matches.forEach(o -> {
+                set_relationships(o, rels.get(o.getId()));
+            });
 
-        return new PassClientResult<>(matches, total);
+            return new PassClientResult<>(matches, total);
+        };
     }
 
     @Override
-    public InputStream downloadFile(File file) throws IOException {
-        // Transform File URI to use baseUrl in order to avoid authentication issues
-        HttpUrl url = HttpUrl.parse(baseUrl).newBuilder()
-                .addEncodedPathSegments(file.getUri().getRawPath().substring(1)).build();
+    public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector) throws IOException {
+        return execute(select_request(selector), select_handler(selector));
+    }
 
+    @Override
+    public <T extends PassEntity> CompletableFuture<PassClientResult<T>> selectObjectsAsync(
+            PassClientSelector<T> selector) {
+        return enqueue(select_request(selector), select_handler(selector));
+    }
+
+    @Override
+    public BinaryInputStream downloadFile(File file) throws IOException {
+        HttpUrl url = get_binary_url(file);
         Request request = new Request.Builder().url(url).get().build();
         Response response = client.newCall(request).execute();
 
         if (!response.isSuccessful()) {
+            response.close();
             throw new IOException(String.format("Failed to retrieve binary for File: %s, URL: %s, Status code: %d",
                     file.getId(), url, response.code()));
         }
 
-        return response.body().byteStream();
+        // Closing the stream closes the response
+        return new BinaryInputStream(response.body().byteStream(), response.body().contentLength());
+    }
+
+    @Override
+    public long getFileLength(File file) throws IOException {
+        HttpUrl url = get_binary_url(file);
+        Request request = new Request.Builder().url(url).head().build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException(String.format("Failed to retrieve length of binary for File: %s, URL: %s, "
+                        + "Status code: %d", file.getId(), url, response.code()));
+            }
+
+            String length = response.header("Content-Length");
+
+            return length == null ? -1 : Long.parseLong(length);
+        }
+    }
+
+    // Transform File URI to use baseUrl in order to avoid authentication issues
+    private HttpUrl get_binary_url(File file) {
+        return HttpUrl.parse(baseUrl).newBuilder()
+                .addEncodedPathSegments(file.getUri().getRawPath().substring(1)).build();
+    }
+
+    @Override
+    public String getSubmissionMetadata(String id, String... keys) throws IOException {
+        HttpUrl.Builder url_builder = HttpUrl.parse(baseUrl).newBuilder()
+                .addPathSegments("metadata/submission").addPathSegment(id);
+
+        for (String key : keys) {
+            url_builder.addQueryParameter("key", key);
+        }
+
+        HttpUrl url = url_builder.build();
+        Request request = new Request.Builder().url(url).header("Accept", "application/json").get().build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 404) {
+                return null;
+            }
+
+            if (!response.isSuccessful()) {
+                throw new IOException("Get metadata failed: " + url + " returned " + response.code() + " "
+                        + response.body().string());
+            }
+
+            return response.body().string();
+        }
+    }
+
+    @Override
+    public List<String> findSubmissionsByMetadata(String key, String value) throws IOException {
+        HttpUrl url = HttpUrl.parse(baseUrl).newBuilder().addPathSegments("metadata/submission")
+                .addQueryParameter("key", key).addQueryParameter("value", value).build();
+        Request request = new Request.Builder().url(url).header("Accept", "application/json").get().build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Find by metadata failed: " + url + " returned " + response.code() + " "
+                        + response.body().string());
+            }
+
+            List<String> result = new ArrayList<>();
+
+            try (JsonReader reader = JsonReader.of(response.body().source())) {
+                reader.beginArray();
+
+                while (reader.hasNext()) {
+                    result.add(reader.nextString());
+                }
+
+                reader.endArray();
+            }
+
+            return result;
+        }
     }
 
     @Override
     public URI uploadBinary(String name, byte[] data) throws IOException {
+        return upload_binary(name, RequestBody.create(data));
+    }
+
+    @Override
+    public URI uploadBinary(String name, InputStream data, long length) throws IOException {
+        // The stream can only be read once so the request cannot be retried
+        RequestBody body = new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return null;
+            }
+
+            @Override
+            public long contentLength() {
+                return length;
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return true;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                Source source = Okio.source(data);
+                sink.writeAll(source);
+            }
+        };
+
+        return upload_binary(name, body);
+    }
+
+    @Override
+    public URI uploadBinary(String name, Path path) throws IOException {
+        return upload_binary(name, RequestBody.create(path.toFile(), null));
+    }
+
+    private URI upload_binary(String name, RequestBody data) throws IOException {
         HttpUrl url = HttpUrl.parse(baseUrl).newBuilder()
                 .addEncodedPathSegment("file").build();
 
         RequestBody body = new MultipartBody.Builder().setType(MultipartBody.FORM)
-                .addFormDataPart("file", name, RequestBody.create(data))
+                .addFormDataPart("file", name, data)
                 .build();
 
         Request request = new Request.Builder().url(url).post(body).build();
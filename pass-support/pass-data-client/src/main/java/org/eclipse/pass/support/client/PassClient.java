@@ -18,8 +18,12 @@ package org.eclipse.pass.support.client;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.util.Spliterator;
-import java.util.function.Consumer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -29,24 +33,36 @@ import org.eclipse.pass.support.client.model.PassEntity;
 /**
  * PassClient provides CRUD operations on objects in a running PASS system.
  * A Java representation of the PASS data model is provided.
+ * <p>
+ * The async variants of operations return immediately and allow independent requests to be overlapped.
+ * The default implementations of the async operations just perform the blocking operation.
  */
 public interface PassClient {
     /**
      * Create a new PassClient configured by using system properties:
-     * pass.core.url, pass.core.user, and pass.core.password.
+     * pass.core.url, pass.core.user, pass.core.password, and optionally pass.core.cache.size.
+     * The connection pool shared by all clients is also configured by system properties.
      *
      * @return new PassClient
+     * @see JsonApiPassClient
      */
     public static PassClient newInstance() {
         String url = System.getProperty("pass.core.url");
         String user = System.getProperty("pass.core.user");
         String pass = System.getProperty("pass.core.password");
+        String cache_size = System.getProperty("pass.core.cache.size");
 
         if (url == null) {
             throw new RuntimeException("Missing required system property: pass.core.url");
         }
 
-        return new JsonApiPassClient(url, user, pass);
+        JsonApiPassClient client = new JsonApiPassClient(url, user, pass);
+
+        if (cache_size != null) {
+            client.setCacheSize(Integer.parseInt(cache_size));
+        }
+
+        return client;
     }
 
     /**
@@ -81,6 +97,36 @@ public interface PassClient {
      */
     <T extends PassEntity> void createObject(T obj) throws IOException;
 
+    /**
+     * Create new objects. The ids of the objects must be null and will be set by the method.
+     * Implementations may create the objects in batches using fewer requests. The targets of
+     * relationships must already exist. If the operation fails, some of the objects may have been created.
+     *
+     * @param <T> type of the objects
+     * @param objs objects to persist
+     * @throws IOException if operation fails
+     */
+    default <T extends PassEntity> void createObjects(List<T> objs) throws IOException {
+        for (T obj : objs) {
+            createObject(obj);
+        }
+    }
+
+    /**
+     * Create a new object asynchronously.
+     * The id of the object must be null and will be set when the returned future completes.
+     *
+     * @param <T> type of the object
+     * @param obj object to persist
+     * @return future completed with the object or completed exceptionally with an IOException if operation fails
+     */
+    default <T extends PassEntity> CompletableFuture<T> createObjectAsync(T obj) {
+        return complete(() -> {
+            createObject(obj);
+            return obj;
+        });
+    }
+
     /**
      * Update an existing object.
      *
@@ -90,6 +136,34 @@ public interface PassClient {
      */
     <T extends PassEntity> void updateObject(T obj) throws IOException;
 
+    /**
+     * Update existing objects. Implementations may update the objects in batches using fewer requests.
+     * If the operation fails, some of the objects may have been updated.
+     *
+     * @param <T> type of the objects
+     * @param objs objects to update
+     * @throws IOException if operation fails
+     */
+    default <T extends PassEntity> void updateObjects(List<T> objs) throws IOException {
+        for (T obj : objs) {
+            updateObject(obj);
+        }
+    }
+
+    /**
+     * Update an existing object asynchronously.
+     *
+     * @param <T> type of the object
+     * @param obj object to update
+     * @return future completed with the object or completed exceptionally with an IOException if operation fails
+     */
+    default <T extends PassEntity> CompletableFuture<T> updateObjectAsync(T obj) {
+        return complete(() -> {
+            updateObject(obj);
+            return obj;
+        });
+    }
+
     /**
      * Retrieve object with the given type and id from the repository. Targets of
      * relationships may optionally be included in the response. If they are not included,
@@ -104,6 +178,26 @@ public interface PassClient {
      */
     <T extends PassEntity> T getObject(Class<T> type, String id, String... include) throws IOException;
 
+    /**
+     * Retrieve object with the given type and id from the repository. Only the given fields of objects of each
+     * type in the fields map are returned. This is a sparse fieldset. Fields which are not returned are null or
+     * empty in the returned objects. Such partial objects must not be used to update objects because the
+     * missing fields would be cleared. The default implementation returns all fields.
+     *
+     * @param <T> type of the object
+     * @param type Class of the object
+     * @param id identifier of the object
+     * @param fields names of attributes and relationships to return for each type
+     * @param include Array of relationship names whose targets will be included in response
+     * @return persisted object or null if it does not exist
+     * @throws IOException if operation fails
+     * @see PassClientSelector#setFields(Class, String...)
+     */
+    default <T extends PassEntity> T getObject(Class<T> type, String id,
+            Map<Class<? extends PassEntity>, String[]> fields, String... include) throws IOException {
+        return getObject(type, id, include);
+    }
+
     /**
      * Retrieve object with the type of and id of the argument object.
      * This can be useful when only the type and id are known.
@@ -119,6 +213,36 @@ public interface PassClient {
         return (T) getObject(obj.getClass(), obj.getId(), include);
     }
 
+    /**
+     * Retrieve object with the given type and id from the repository asynchronously.
+     *
+     * @param <T> type of the object
+     * @param type Class of the object
+     * @param id identifier of the object
+     * @param include Array of relationship names whose targets will be included in response
+     * @return future completed with the persisted object or null if it does not exist, or completed
+     *  exceptionally with an IOException if operation fails
+     * @see #getObject(Class, String, String...)
+     */
+    default <T extends PassEntity> CompletableFuture<T> getObjectAsync(Class<T> type, String id,
+            String... include) {
+        return complete(() -> getObject(type, id, include));
+    }
+
+    /**
+     * Retrieve object with the type of and id of the argument object asynchronously.
+     *
+     * @param <T> type of the object
+     * @param obj type and id of object to retrieve
+     * @param include Array of relationship names whose targets will be included in response
+     * @return future completed with the persisted object or null if it does not exist, or completed
+     *  exceptionally with an IOException if operation fails
+     */
+    @SuppressWarnings("unchecked")
+    default <T extends PassEntity> CompletableFuture<T> getObjectAsync(T obj, String... include) {
+        return getObjectAsync((Class<T>) obj.getClass(), obj.getId(), include);
+    }
+
     /**
      * Delete object with the given type and id.
      *
@@ -150,8 +274,25 @@ public interface PassClient {
      */
     <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector) throws IOException;
 
+    /**
+     * Select objects from the repository matching the selector asynchronously.
+     *
+     * @param <T> type of the object
+     * @param selector which objects to retrieve
+     * @return future completed with the matching objects or completed exceptionally with an IOException
+     *  if operation fails
+     */
+    default <T extends PassEntity> CompletableFuture<PassClientResult<T>> selectObjectsAsync(
+            PassClientSelector<T> selector) {
+        return complete(() -> selectObjects(selector));
+    }
+
     /**
      * Stream all objects in the repository matching the selector starting from the selector offset.
+     * Pages of results are retrieved ahead of the consumer in the background. The stream may be
+     * made parallel in which case pages are retrieved concurrently. The total number of matches is only
+     * requested for the first page and only if the selector requests totals. Without a total the stream
+     * cannot be split. The selector is not modified.
      *
      * @param <T> type of the object
      * @param selector which objects to retrieve
@@ -159,51 +300,32 @@ public interface PassClient {
      * @throws IOException if operation fails
      */
     default <T extends PassEntity> Stream<T> streamObjects(PassClientSelector<T> selector) throws IOException {
-        Spliterator<T> iter = new Spliterator<T>() {
-            PassClientResult<T> result = selectObjects(selector);
-            int next = 0;
-
-            @Override
-            public int characteristics() {
-                return NONNULL | CONCURRENT;
-            }
-
-            @Override
-            public long estimateSize() {
-                return result.getTotal();
-            }
-
-            @Override
-            public boolean tryAdvance(Consumer<? super T> consumer) {
-                if (next == result.getObjects().size()) {
-                    try {
-                        selector.setOffset(selector.getOffset() + selector.getLimit());
-                        result = selectObjects(selector);
-                        next = 0;
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-
-                    if (result.getObjects().size() == 0) {
-                        return false;
-                    }
-                }
-
-                consumer.accept(result.getObjects().get(next++));
-                return true;
-            }
+        return streamObjects(selector, PassClientSpliterator.DEFAULT_PREFETCH);
+    }
 
-            @Override
-            public Spliterator<T> trySplit() {
-                return null;
-            }
-        };
+    /**
+     * Stream all objects in the repository matching the selector starting from the selector offset.
+     * At most prefetch pages of results are retrieved ahead of the consumer in the background.
+     * The stream may be made parallel in which case pages are retrieved concurrently.
+     * The selector is not modified.
+     *
+     * @param <T> type of the object
+     * @param selector which objects to retrieve
+     * @param prefetch max number of pages to retrieve ahead of the consumer, must be at least 1
+     * @return Stream matching objects
+     * @throws IOException if operation fails
+     */
+    default <T extends PassEntity> Stream<T> streamObjects(PassClientSelector<T> selector, int prefetch)
+            throws IOException {
+        PassClientSpliterator<T> iter = new PassClientSpliterator<>(this, selector, prefetch);
 
-        return StreamSupport.stream(iter, false);
+        return StreamSupport.stream(iter, false).onClose(iter::close);
     }
 
     /**
-     * Download the binary associated with a File.
+     * Download the binary associated with a File. The bytes are streamed as they are read.
+     * The stream should be closed. Implementations which know the length of the binary
+     * return a {@link BinaryInputStream}.
      *
      * @param file to download
      * @return InputStream of bytes
@@ -220,6 +342,48 @@ public interface PassClient {
         return downloadFile(getObject(File.class, id));
     }
 
+    /**
+     * Return the length of the binary associated with a File without downloading it.
+     * The default implementation does not know the length.
+     *
+     * @param file of binary
+     * @return length of the binary in bytes or -1 if unknown
+     * @throws IOException if operation fails
+     */
+    default long getFileLength(File file) throws IOException {
+        return -1;
+    }
+
+    /**
+     * @param id of File
+     * @return length of the binary in bytes or -1 if unknown
+     * @throws IOException if operation fails
+     */
+    default long getFileLength(String id) throws IOException {
+        return getFileLength(getObject(File.class, id));
+    }
+
+    /**
+     * Return only the given top level keys of the metadata of a Submission. This avoids retrieving the whole
+     * Submission. If the metadata is not a JSON object, all of it is returned.
+     *
+     * @param id of the Submission
+     * @param keys of metadata to return or none to return all the metadata
+     * @return metadata as a JSON string or null if the Submission does not exist
+     * @throws IOException if operation fails
+     */
+    String getSubmissionMetadata(String id, String... keys) throws IOException;
+
+    /**
+     * Find the Submissions whose metadata has the given string value for a top level key.
+     *
+     * @param key of metadata
+     * @param value of key
+     * @return ids of matching Submissions
+     * @throws IOException if operation fails
+     */
+    List<String> findSubmissionsByMetadata(String key, String value) throws IOException;
+
     /**
      * Uploads a binary to the file service.
      *
@@ -229,4 +393,45 @@ public interface PassClient {
      * @throws IOException if operation fails
      */
     URI uploadBinary(String name, byte[] data) throws IOException;
-}
\ No newline at end of file
+
+    /**
+     * Uploads a binary to the file service. The bytes are streamed as they are read.
+     * The stream is not closed.
+     *
+     * @param name of binary
+     * @param data of binary
+     * @param length of binary in bytes or -1 if unknown
+     * @return URI to retrieve the binary
+     * @throws IOException if operation fails
+     */
+    default URI uploadBinary(String name, InputStream data, long length) throws IOException {
+        return uploadBinary(name, data.readAllBytes());
+    }
+
+    /**
+     * Uploads a file to the file service. The bytes are streamed as they are read.
+     *
+     * @param name of binary
+     * @param path of file to upload
+     * @return URI to retrieve the binary
+     * @throws IOException if operation fails
+     */
+    default URI uploadBinary(String name, Path path) throws IOException {
+        return uploadBinary(name, Files.readAllBytes(path));
+    }
+
+    /**
+     * Perform a blocking operation and return a future which is already complete.
+     *
+     * @param <R> type of the result
+     * @param op operation to perform
+     * @return future completed with the result of the operation or its exception
+     */
+    private static <R> CompletableFuture<R> complete(Callable<R> op) {
+        try {
+            return CompletableFuture.completedFuture(op.call());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
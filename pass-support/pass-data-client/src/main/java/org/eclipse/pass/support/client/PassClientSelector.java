@@ -15,6 +15,9 @@
  */
 package org.eclipse.pass.support.client;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.pass.support.client.model.PassEntity;
 
 /**
@@ -22,6 +25,12 @@ import org.eclipse.pass.support.client.model.PassEntity;
  * See https://elide.io/pages/guide/v6/10-jsonapi.html for information on the
  * sort, filter, and include syntax.
  * A given number of matches in the total result list starting at the given offset are returned.
+ * <p>
+ * Alternatively keyset pagination may be used. Matches are then returned in ascending id order
+ * starting after a given id and the offset and sorting are ignored. Unlike an offset, the cost of
+ * retrieving a page does not depend on how far into the total result list the page is.
+ * <p>
+ * The fields returned for each type of object may be restricted with a sparse fieldset.
  */
 public class PassClientSelector<T extends PassEntity> {
     private static final int DEFAULT_LIMIT = 500;
@@ -31,7 +40,11 @@ public class PassClientSelector<T extends PassEntity> {
     private Class<T> type;
     private String sorting;
     private String filter;
+    private boolean totals;
+    private boolean keyset;
+    private String afterId;
     private String[] include;
+    private Map<Class<? extends PassEntity>, String[]> fields;
 
     /**
      * Match all objects of the given type.
@@ -58,7 +71,27 @@ public class PassClientSelector<T extends PassEntity> {
         this.type = type;
         this.filter = filter;
         this.sorting = sorting;
+        this.totals = true;
         this.include = include;
+        this.fields = new LinkedHashMap<>();
+    }
+
+    /**
+     * Create a copy of a selector.
+     *
+     * @param selector to copy
+     */
+    public PassClientSelector(PassClientSelector<T> selector) {
+        this.offset = selector.offset;
+        this.limit = selector.limit;
+        this.type = selector.type;
+        this.filter = selector.filter;
+        this.sorting = selector.sorting;
+        this.include = selector.include;
+        this.totals = selector.totals;
+        this.keyset = selector.keyset;
+        this.afterId = selector.afterId;
+        this.fields = new LinkedHashMap<>(selector.fields);
     }
 
     /**
@@ -144,4 +177,79 @@ public class PassClientSelector<T extends PassEntity> {
     public void setInclude(String... include) {
         this.include = include;
     }
+
+    /**
+     * @return whether the total number of matches is requested
+     */
+    public boolean isTotals() {
+        return totals;
+    }
+
+    /**
+     * Calculating the total number of matches requires an extra query. The default is to request it.
+     * If it is not requested, the total of the result will be -1.
+     *
+     * @param totals whether to request the total number of matches
+     */
+    public void setTotals(boolean totals) {
+        this.totals = totals;
+    }
+
+    /**
+     * @return whether keyset pagination is used
+     */
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * If keyset pagination is used, matches are sorted by ascending id and only those with an id
+     * greater than afterId are returned. The offset and sorting are ignored.
+     *
+     * @param keyset whether to use keyset pagination
+     */
+    public void setKeyset(boolean keyset) {
+        this.keyset = keyset;
+    }
+
+    /**
+     * @return id which matches must be greater than or null for no restriction
+     */
+    public String getAfterId() {
+        return afterId;
+    }
+
+    /**
+     * Only used with keyset pagination. Set to the id of the last object of a page in
+     * order to retrieve the next page.
+     *
+     * @param afterId to set
+     */
+    public void setAfterId(String afterId) {
+        this.afterId = afterId;
+    }
+
+    /**
+     * @return fields to return for each type which has a sparse fieldset
+     */
+    public Map<Class<? extends PassEntity>, String[]> getFields() {
+        return fields;
+    }
+
+    /**
+     * Only return the given fields of objects of a type. The fields are names of attributes and relationships.
+     * The type may be the type of matches or of included relationship targets. The id of an object is
+     * always returned. Fields which are not returned are null or empty in the returned objects.
+     * Such partial objects must not be used to update objects because the missing fields would be cleared.
+     *
+     * @param type of objects
+     * @param fields to return or none to return all fields
+     */
+    public void setFields(Class<? extends PassEntity> type, String... fields) {
+        if (fields.length == 0) {
+            this.fields.remove(type);
+        } else {
+            this.fields.put(type, fields);
+        }
+    }
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Spliterator over all the objects matching a selector. Pages of results are retrieved
+ * ahead of the consumer in the background. At most prefetch pages are outstanding at a time
+ * so memory use is bounded. When the total number of matches is known, the remaining pages
+ * can be split off so that a parallel stream will retrieve them concurrently. The total is only
+ * requested for the first page and only if the selector asks for it.
+ * <p>
+ * If the selector uses keyset pagination, each page request depends on the last id of the previous page.
+ * In that case only the next page is retrieved ahead of the consumer and the spliterator cannot be split.
+ *
+ * @param <T> type of the object
+ */
+class PassClientSpliterator<T extends PassEntity> implements Spliterator<T> {
+    /**
+     * Default number of pages to retrieve ahead of the consumer.
+     */
+    static final int DEFAULT_PREFETCH = 2;
+
+    // Shared by all streams. Threads are daemons and exit when idle.
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "pass-client-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final PassClient client;
+    private final PassClientSelector<T> selector;
+    private final int prefetch;
+    private final Deque<Future<PassClientResult<T>>> pending;
+
+    // Offset of the next page to request
+    private int fetch_offset;
+
+    // Offset one past the last match or Integer.MAX_VALUE if not known
+    private int end_offset;
+
+    // Id to request the next page after when using keyset pagination or null if not yet known
+    private String keyset_next;
+
+    // Offset of the first object in the current page
+    private int page_offset;
+    private List<T> page;
+    private int next;
+    private boolean done;
+
+    /**
+     * Create a spliterator starting at the selector offset. The first page is retrieved immediately.
+     * The selector is not modified.
+     *
+     * @param client used to retrieve pages
+     * @param selector which objects to retrieve
+     * @param prefetch max number of pages to retrieve ahead of the consumer
+     * @throws IOException if the first page cannot be retrieved
+     */
+    PassClientSpliterator(PassClient client, PassClientSelector<T> selector, int prefetch) throws IOException {
+        this(client, selector, prefetch, selector.getOffset(), Integer.MAX_VALUE);
+
+        PassClientResult<T> result = client.selectObjects(selector);
+
+        if (result.getTotal() >= 0 && !selector.isKeyset()) {
+            end_offset = (int) Math.min(result.getTotal(), Integer.MAX_VALUE);
+        }
+
+        set_page(selector.getOffset(), result.getObjects());
+        fetch_offset = selector.getOffset() + selector.getLimit();
+    }
+
+    private PassClientSpliterator(PassClient client, PassClientSelector<T> selector, int prefetch, int start,
+            int end) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must be at least 1: " + prefetch);
+        }
+
+        this.client = client;
+        this.selector = new PassClientSelector<>(selector);
+        this.prefetch = prefetch;
+        this.pending = new ArrayDeque<>();
+        this.fetch_offset = start;
+        this.end_offset = end;
+        this.page_offset = start;
+        this.page = Collections.emptyList();
+        this.next = 0;
+        this.done = false;
+        this.keyset_next = null;
+    }
+
+    private void set_page(int offset, List<T> objects) {
+        page_offset = offset;
+        page = objects;
+        next = 0;
+
+        if (objects.isEmpty()) {
+            finish();
+        } else if (selector.isKeyset()) {
+            keyset_next = objects.get(objects.size() - 1).getId();
+        }
+    }
+
+    // Submit page requests until prefetch pages are outstanding or there are no more pages
+    private void fill() {
+        if (selector.isKeyset()) {
+            if (!done && pending.isEmpty() && keyset_next != null) {
+                PassClientSelector<T> page_selector = new PassClientSelector<>(selector);
+                page_selector.setAfterId(keyset_next);
+                page_selector.setTotals(false);
+
+                pending.add(EXECUTOR.submit(() -> client.selectObjects(page_selector)));
+                keyset_next = null;
+            }
+
+            return;
+        }
+
+        while (!done && pending.size() < prefetch && fetch_offset < end_offset) {
+            PassClientSelector<T> page_selector = new PassClientSelector<>(selector);
+            page_selector.setOffset(fetch_offset);
+            page_selector.setTotals(false);
+
+            pending.add(EXECUTOR.submit(() -> client.selectObjects(page_selector)));
+            fetch_offset += selector.getLimit();
+        }
+    }
+
+    // Wait for the next outstanding page and make it the current page
+    private void advance_page() {
+        fill();
+
+        // Outstanding pages are consecutive and end just before fetch_offset
+        int offset = fetch_offset - pending.size() * selector.getLimit();
+        Future<PassClientResult<T>> future = pending.poll();
+
+        if (future == null) {
+            finish();
+            return;
+        }
+
+        try {
+            set_page(offset, future.get().getObjects());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            close();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void finish() {
+        done = true;
+        page = Collections.emptyList();
+        next = 0;
+        pending.forEach(f -> f.cancel(true));
+        pending.clear();
+    }
+
+    /**
+     * Cancel any outstanding page requests.
+     */
+    void close() {
+        finish();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> consumer) {
+        while (!done && next == page.size()) {
+            advance_page();
+        }
+
+        if (done) {
+            return false;
+        }
+
+        // Only start retrieving ahead once the consumer moves past the first object of a page.
+        // This avoids extra requests for findFirst and similar.
+        if (next > 0) {
+            fill();
+        }
+
+        consumer.accept(page.get(next++));
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (done || end_offset == Integer.MAX_VALUE) {
+            return null;
+        }
+
+        int limit = selector.getLimit();
+        int pages = (end_offset - fetch_offset + limit - 1) / limit;
+
+        if (pages < 2) {
+            return null;
+        }
+
+        int mid = fetch_offset + (pages / 2) * limit;
+
+        // The split must be a prefix. Hand the current position to it and start over at mid.
+        PassClientSpliterator<T> split = new PassClientSpliterator<>(client, selector, prefetch, page_offset, mid);
+        split.page = page;
+        split.next = next;
+        split.fetch_offset = fetch_offset;
+        split.pending.addAll(pending);
+
+        pending.clear();
+        page = Collections.emptyList();
+        next = 0;
+        page_offset = mid;
+        fetch_offset = mid;
+
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (end_offset == Integer.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+
+        return Math.max(0, end_offset - (page_offset + next));
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | CONCURRENT;
+    }
+}
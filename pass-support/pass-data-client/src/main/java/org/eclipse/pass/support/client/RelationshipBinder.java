@@ -0,0 +1,203 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Sets relationship targets on model objects. The constructors, getters, and setters needed are looked up
+ * once for each model type when the binder is created and then invoked through method handles.
+ * <p>
+ * A model type must have a constructor which takes an id. A relationship is represented by a set method taking
+ * either a model type or a List and the relationship name is the name of the set method without the set prefix.
+ */
+final class RelationshipBinder {
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, String.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static class TypeBinding {
+        // Relationship name to setter
+        final Map<String, MethodHandle> setters = new HashMap<>();
+
+        // To one relationship name to getter
+        final Map<String, MethodHandle> to_one_getters = new LinkedHashMap<>();
+    }
+
+    // JSON API type to id constructor
+    private final Map<String, MethodHandle> constructors;
+    private final Map<Class<?>, TypeBinding> bindings;
+
+    /**
+     * @param types model types to bind
+     */
+    RelationshipBinder(Class<?>... types) {
+        this.constructors = new HashMap<>();
+        this.bindings = new HashMap<>();
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        for (Class<?> type : types) {
+            try {
+                constructors.put(getJsonType(type), lookup.findConstructor(type,
+                        MethodType.methodType(void.class, String.class)).asType(CONSTRUCTOR_TYPE));
+                bindings.put(type, create_binding(lookup, type));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot bind relationships of: " + type.getName(), e);
+            }
+        }
+    }
+
+    private static TypeBinding create_binding(MethodHandles.Lookup lookup, Class<?> type)
+            throws IllegalAccessException {
+        TypeBinding binding = new TypeBinding();
+
+        for (Method m : type.getMethods()) {
+            String name = m.getName();
+
+            if (name.length() < 4) {
+                continue;
+            }
+
+            String rel = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+
+            if (name.startsWith("set") && m.getParameterCount() == 1) {
+                Class<?> param = m.getParameterTypes()[0];
+
+                if (param == List.class || PassEntity.class.isAssignableFrom(param)) {
+                    binding.setters.put(rel, lookup.unreflect(m).asType(SETTER_TYPE));
+                }
+            } else if (name.startsWith("get") && m.getParameterCount() == 0
+                    && PassEntity.class.isAssignableFrom(m.getReturnType())) {
+                binding.to_one_getters.put(rel, lookup.unreflect(m).asType(GETTER_TYPE));
+            }
+        }
+
+        return binding;
+    }
+
+    /**
+     * @param type model type
+     * @return JSON API type name
+     */
+    static String getJsonType(Class<?> type) {
+        String name = type.getSimpleName();
+
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private TypeBinding get_binding(Class<?> type) {
+        TypeBinding binding = bindings.get(type);
+
+        if (binding == null) {
+            throw new IllegalArgumentException("Not a model type: " + type.getName());
+        }
+
+        return binding;
+    }
+
+    /**
+     * Create a model object with only the id set.
+     *
+     * @param json_type JSON API type of the object
+     * @param id identifier of the object
+     * @return new object
+     */
+    Object createTarget(String json_type, String id) {
+        MethodHandle constructor = constructors.get(json_type);
+
+        if (constructor == null) {
+            throw new IllegalArgumentException("Unknown type: " + json_type);
+        }
+
+        try {
+            return (Object) constructor.invokeExact(id);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to create: " + json_type, e);
+        }
+    }
+
+    /**
+     * Set a relationship of an object to targets with only the id set.
+     *
+     * @param obj source of the relationship
+     * @param name relationship name
+     * @param target_type JSON API type of the targets
+     * @param target_ids identifiers of the targets
+     * @param to_many whether the relationship is to many
+     */
+    void setRelationship(Object obj, String name, String target_type, List<String> target_ids, boolean to_many) {
+        MethodHandle setter = get_binding(obj.getClass()).setters.get(name);
+
+        if (setter == null) {
+            throw new IllegalArgumentException("Unknown relationship " + name + " of " + obj.getClass().getName());
+        }
+
+        Object target;
+
+        if (to_many) {
+            List<Object> list = new ArrayList<>(target_ids.size());
+            target_ids.forEach(id -> list.add(createTarget(target_type, id)));
+            target = list;
+        } else {
+            target = createTarget(target_type, target_ids.get(0));
+        }
+
+        try {
+            setter.invokeExact(obj, target);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to set relationship " + name + " of " + obj.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * @param obj model object
+     * @return names of all to one relationships of the object which have a null value
+     */
+    List<String> getNullToOneRelationships(Object obj) {
+        Map<String, MethodHandle> getters = get_binding(obj.getClass()).to_one_getters;
+
+        if (getters.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>();
+
+        getters.forEach((rel, getter) -> {
+            try {
+                if ((Object) getter.invokeExact(obj) == null) {
+                    result.add(rel);
+                }
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to get relationship " + rel + " of " + obj.getClass().getName(),
+                        e);
+            }
+        });
+
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Holds the OkHttpClient shared by all PassClient instances in a JVM. Clients are derived from the shared client
+ * so they use the same connection pool and dispatcher. The shared client is configured by optional system
+ * properties when first used. See {@link JsonApiPassClient}.
+ */
+final class SharedHttpClient {
+    /**
+     * Default max number of concurrent requests.
+     */
+    static final int DEFAULT_MAX_REQUESTS = 128;
+
+    /**
+     * Default max number of concurrent requests to a host.
+     */
+    static final int DEFAULT_MAX_REQUESTS_PER_HOST = 32;
+
+    /**
+     * Default max number of idle connections.
+     */
+    static final int DEFAULT_MAX_IDLE_CONNECTIONS = 32;
+
+    /**
+     * Default keep alive of idle connections.
+     */
+    static final int DEFAULT_KEEP_ALIVE_SECONDS = 300;
+
+    private static volatile OkHttpClient client;
+
+    private SharedHttpClient() {}
+
+    /**
+     * @return shared client
+     */
+    static OkHttpClient get() {
+        OkHttpClient result = client;
+
+        if (result == null) {
+            synchronized (SharedHttpClient.class) {
+                result = client;
+
+                if (result == null) {
+                    result = create();
+                    client = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static int get_property(String name, int default_value) {
+        String value = System.getProperty(name);
+
+        return value == null ? default_value : Integer.parseInt(value);
+    }
+
+    private static List<Protocol> get_protocols(String name) {
+        String value = System.getProperty(name, "http1");
+
+        switch (value) {
+            case "http1":
+                return List.of(Protocol.HTTP_1_1);
+            case "h2":
+                return List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+            case "h2c":
+                return List.of(Protocol.H2_PRIOR_KNOWLEDGE);
+            default:
+                throw new IllegalArgumentException("Unknown value of " + name + ": " + value);
+        }
+    }
+
+    private static OkHttpClient create() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(get_property("pass.core.max.requests", DEFAULT_MAX_REQUESTS));
+        dispatcher.setMaxRequestsPerHost(get_property("pass.core.max.requests.per.host",
+                DEFAULT_MAX_REQUESTS_PER_HOST));
+
+        ConnectionPool pool = new ConnectionPool(get_property("pass.core.max.idle.connections",
+                DEFAULT_MAX_IDLE_CONNECTIONS), get_property("pass.core.keep.alive.seconds",
+                DEFAULT_KEEP_ALIVE_SECONDS), TimeUnit.SECONDS);
+
+        return new OkHttpClient.Builder().dispatcher(dispatcher).connectionPool(pool)
+                .protocols(get_protocols("pass.core.http.protocol")).build();
+    }
+}
@@ -83,7 +83,7 @@ public class SubmissionStatusService {
 
         if (!submission.getSubmitted()) {
             List<SubmissionEvent> submissionEvents = getRelationshipSubject(SubmissionEvent.class, "submission.id",
-                    submission.getId());
+                    submission.getId(), "eventType", "performedDate");
 
             // Calculate the pre-submission status, defaulting to the existing status if one cannot be determined
             // from the submission events.
@@ -91,9 +91,10 @@ public class SubmissionStatusService {
                                                                                submission.getSubmissionStatus());
 
         } else {
-            List<Deposit> deposits = getRelationshipSubject(Deposit.class, "submission.id", submission.getId());
+            List<Deposit> deposits = getRelationshipSubject(Deposit.class, "submission.id", submission.getId(),
+                    "depositStatus", "repository");
             List<RepositoryCopy> repositoryCopies = getRelationshipSubject(RepositoryCopy.class,
-                    "publication.id", submission.getPublication().getId());
+                    "publication.id", submission.getPublication().getId(), "copyStatus", "repository");
 
             toStatus = SubmissionStatusCalculator.calculatePostSubmissionStatus(submission.getRepositories()
                     .stream().map(Repository::getId).collect(Collectors.toList()), deposits,
@@ -114,10 +115,12 @@ public class SubmissionStatusService {
     }
 
     <T extends PassEntity> List<T> getRelationshipSubject(Class<T> type, String predicate,
-            String targetId, String... include) {
+            String targetId, String... fields) {
         PassClientSelector<T> sel = new PassClientSelector<>(type);
         sel.setFilter(RSQL.equals(predicate, targetId));
-        sel.setInclude(include);
+
+        // Only the fields needed to calculate the status are retrieved
+        sel.setFields(type, fields);
 
         try {
             return client.streamObjects(sel).collect(Collectors.toList());
@@ -1,22 +1,31 @@
 package org.eclipse.pass.support.client;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import org.eclipse.pass.support.client.model.AggregatedDepositStatus;
@@ -332,6 +341,13 @@ public class JsonApiPassClientIT {
         assertEquals(pubs.size(), result.getTotal());
         assertIterableEquals(pubs.subList(5, pubs.size()), result.getObjects());
 
+        // Test selecting without totals
+        selector.setTotals(false);
+        result = client.selectObjects(selector);
+
+        assertEquals(-1, result.getTotal());
+        assertIterableEquals(pubs.subList(5, pubs.size()), result.getObjects());
+
         // Test using a stream which will make multiple calls. Do not include journal.
         selector = new PassClientSelector<>(Publication.class, 0, 2, filter, "id");
         pubs.forEach(p -> p.setJournal(new Journal(journal.getId())));
@@ -341,6 +357,196 @@ public class JsonApiPassClientIT {
         filter = RSQL.equals("journal.id", journal.getId());
         selector = new PassClientSelector<>(Publication.class, 0, 100, filter, "id");
         assertIterableEquals(pubs, client.streamObjects(selector).collect(Collectors.toList()));
+
+        // Test keyset pagination which will make multiple calls and ignore the sorting
+        selector = new PassClientSelector<>(Publication.class, 0, 3, filter, "-id");
+        selector.setKeyset(true);
+        assertIterableEquals(pubs, client.streamObjects(selector).collect(Collectors.toList()));
+
+        selector.setAfterId(pubs.get(6).getId());
+        assertIterableEquals(pubs.subList(7, 10), client.selectObjects(selector).getObjects());
+    }
+
+    @Test
+    public void testCreateUpdateObjects() throws IOException {
+        String pmid = "" + UUID.randomUUID();
+
+        Journal journal = new Journal();
+        journal.setJournalName("Batch journal");
+        client.createObject(journal);
+
+        List<Publication> pubs = new ArrayList<>();
+
+        // Enough objects to require more than one batch
+        for (int i = 0; i < JsonApiPassClient.MAX_BATCH_SIZE + 5; i++) {
+            Publication pub = new Publication();
+
+            pub.setIssue("Number: " + i);
+            pub.setPmid(pmid);
+            pub.setJournal(journal);
+
+            pubs.add(pub);
+        }
+
+        client.createObjects(pubs);
+        pubs.forEach(p -> assertNotNull(p.getId()));
+
+        String filter = RSQL.equals("pmid", pmid);
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 500, filter, "id");
+        selector.setInclude("journal");
+
+        assertIterableEquals(pubs, client.selectObjects(selector).getObjects());
+
+        // Update attributes and clear a relationship
+        pubs.forEach(p -> {
+            p.setTitle("Title of " + p.getIssue());
+            p.setJournal(null);
+        });
+
+        client.updateObjects(pubs);
+
+        assertIterableEquals(pubs, client.selectObjects(selector).getObjects());
+
+        // Versioned objects keep their version current
+        List<Submission> subs = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            Submission sub = new Submission();
+            sub.setSource(Source.PASS);
+            subs.add(sub);
+        }
+
+        client.createObjects(subs);
+        subs.forEach(sub -> assertNotNull(sub.getVersion()));
+
+        subs.forEach(sub -> sub.setSubmitted(true));
+        client.updateObjects(subs);
+
+        for (Submission sub : subs) {
+            assertEquals(sub, client.getObject(sub));
+        }
+    }
+
+    @Test
+    public void testGetObjectCache() throws IOException {
+        JsonApiPassClient cache_client = new JsonApiPassClient(System.getProperty("pass.core.url"),
+                System.getProperty("pass.core.user"), System.getProperty("pass.core.password"));
+        cache_client.setCacheSize(10);
+
+        Funder funder = new Funder();
+        funder.setName("Cached funder");
+        client.createObject(funder);
+
+        Grant grant = new Grant();
+        grant.setAwardNumber("cached");
+        grant.setPrimaryFunder(funder);
+        client.createObject(grant);
+
+        assertEquals(grant, cache_client.getObject(grant, "primaryFunder"));
+
+        // Revalidated object is returned from the cache and cannot be modified through a previous result
+        Grant cached = cache_client.getObject(grant, "primaryFunder");
+        assertEquals(grant, cached);
+        cached.setAwardNumber("modified");
+        assertEquals(grant, cache_client.getObject(grant, "primaryFunder"));
+
+        // Changes to the object and included objects are seen
+        grant.setAwardNumber("changed");
+        client.updateObject(grant);
+        assertEquals(grant, cache_client.getObject(grant, "primaryFunder"));
+
+        funder.setName("Changed cached funder");
+        client.updateObject(funder);
+        assertEquals(grant, cache_client.getObject(grant, "primaryFunder"));
+
+        // Deleted object is not returned
+        client.deleteObject(grant);
+        assertNull(cache_client.getObject(grant, "primaryFunder"));
+    }
+
+    @Test
+    public void testAsyncObjects() throws IOException {
+        String pmid = "" + UUID.randomUUID();
+        List<Publication> pubs = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            Publication pub = new Publication();
+
+            pub.setIssue("Number: " + i);
+            pub.setPmid(pmid);
+
+            pubs.add(pub);
+        }
+
+        // Create concurrently
+        CompletableFuture.allOf(pubs.stream().map(client::createObjectAsync).toArray(CompletableFuture[]::new))
+                .join();
+        pubs.forEach(p -> assertNotNull(p.getId()));
+
+        // Get concurrently
+        List<CompletableFuture<Publication>> gets = pubs.stream().map(client::getObjectAsync)
+                .collect(Collectors.toList());
+        assertIterableEquals(pubs, gets.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+
+        pubs.get(0).setTitle("Updated");
+        assertEquals(pubs.get(0), client.updateObjectAsync(pubs.get(0)).join());
+        assertEquals(pubs.get(0), client.getObject(pubs.get(0)));
+
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 100,
+                RSQL.equals("pmid", pmid), "id");
+        PassClientResult<Publication> result = client.selectObjectsAsync(selector).join();
+
+        assertEquals(pubs.size(), result.getTotal());
+        assertIterableEquals(pubs, result.getObjects());
+
+        // Missing object
+        assertNull(client.getObjectAsync(Publication.class, "-1").join());
+
+        // Failures complete the future exceptionally
+        Publication bad = new Publication("-1");
+        CompletionException ex = assertThrows(CompletionException.class,
+            () -> client.updateObjectAsync(bad).join());
+        assertTrue(ex.getCause() instanceof IOException);
+    }
+
+    @Test
+    public void testSparseFieldsets() throws IOException {
+        Repository repo = new Repository();
+        repo.setName("Sparse repository");
+        repo.setRepositoryKey("sparse");
+        client.createObject(repo);
+
+        Deposit deposit = new Deposit();
+        deposit.setDepositStatus(DepositStatus.SUBMITTED);
+        deposit.setDepositStatusRef("sparse status ref");
+        deposit.setRepository(repo);
+        client.createObject(deposit);
+
+        PassClientSelector<Deposit> selector = new PassClientSelector<>(Deposit.class);
+        selector.setFilter(RSQL.equals("id", deposit.getId()));
+        selector.setInclude("repository");
+        selector.setFields(Deposit.class, "depositStatus", "repository");
+        selector.setFields(Repository.class, "name");
+
+        PassClientResult<Deposit> result = client.selectObjects(selector);
+        assertEquals(1, result.getObjects().size());
+
+        Deposit partial = result.getObjects().get(0);
+        assertEquals(deposit.getId(), partial.getId());
+        assertEquals(DepositStatus.SUBMITTED, partial.getDepositStatus());
+        assertNull(partial.getDepositStatusRef());
+        assertEquals(repo.getId(), partial.getRepository().getId());
+        assertEquals(repo.getName(), partial.getRepository().getName());
+        assertNull(partial.getRepository().getRepositoryKey());
+
+        partial = client.getObject(Deposit.class, deposit.getId(), Map.of(Deposit.class,
+            new String[] {"depositStatusRef"}));
+        assertEquals(deposit.getDepositStatusRef(), partial.getDepositStatusRef());
+        assertNull(partial.getDepositStatus());
+        assertNull(partial.getRepository());
+
+        // Full object is still returned without fields
+        assertEquals(deposit, client.getObject(deposit));
     }
 
     @Test
@@ -627,7 +833,7 @@ public class JsonApiPassClientIT {
         submission.setAggregatedDepositStatus(AggregatedDepositStatus.ACCEPTED);
         submission.setEffectivePolicies(Arrays.asList(policy));
         submission.setGrants(Arrays.asList(grant));
-        submission.setMetadata("metadata");
+        submission.setMetadata("{\"metadata\": true}");
         submission.setPreparers(Arrays.asList(preparer));
         submission.setPublication(publication);
         submission.setSource(Source.PASS);
@@ -716,6 +922,21 @@ public class JsonApiPassClientIT {
         });
     }
 
+    @Test
+    public void testSubmissionMetadata() throws IOException {
+        String doi = "10.1234/" + UUID.randomUUID();
+
+        Submission sub = new Submission();
+        sub.setMetadata("{\"doi\": \"" + doi + "\", \"title\": \"Roses\", \"volume\": \"2\"}");
+        client.createObject(sub);
+
+        assertEquals("{\"doi\":\"" + doi + "\",\"title\":\"Roses\"}",
+                client.getSubmissionMetadata(sub.getId(), "doi", "title", "issue"));
+        assertEquals(List.of(sub.getId()), client.findSubmissionsByMetadata("doi", doi));
+        assertEquals(List.of(), client.findSubmissionsByMetadata("title", doi));
+        assertNull(client.getSubmissionMetadata("0"));
+    }
+
     @Test
     public void testUploadDownloadFile() throws IOException {
         File file = new File();
@@ -737,4 +958,37 @@ public class JsonApiPassClientIT {
 
         assertEquals(data, test_data);
     }
+
+    @Test
+    public void testStreamUploadDownloadFile() throws IOException {
+        byte[] data = new byte[1024 * 1024];
+        new Random(42).nextBytes(data);
+
+        Path path = Files.createTempFile("pass", ".bin");
+
+        try {
+            Files.write(path, data);
+
+            List<URI> uris = List.of(client.uploadBinary("path.bin", path),
+                    client.uploadBinary("stream.bin", new ByteArrayInputStream(data), data.length),
+                    client.uploadBinary("unknown.bin", new ByteArrayInputStream(data), -1));
+
+            for (URI uri : uris) {
+                File file = new File();
+                file.setName("test.bin");
+                file.setUri(uri);
+                client.createObject(file);
+
+                assertEquals(data.length, client.getFileLength(file));
+
+                try (InputStream is = client.downloadFile(file)) {
+                    assertTrue(is instanceof BinaryInputStream);
+                    assertEquals(data.length, ((BinaryInputStream) is).getContentLength());
+                    assertArrayEquals(data, is.readAllBytes());
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
 }
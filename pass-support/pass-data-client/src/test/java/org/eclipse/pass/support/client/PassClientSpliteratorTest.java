@@ -0,0 +1,184 @@
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.pass.support.client.model.Grant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class PassClientSpliteratorTest {
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private PassClient client;
+
+    // Answer selectObjects with pages of the given grants
+    private void mock_select(List<Grant> grants, boolean totals) throws IOException {
+        when(client.selectObjects(any())).thenAnswer(inv -> {
+            PassClientSelector<?> sel = inv.getArgument(0);
+            int start = Math.min(sel.getOffset(), grants.size());
+            int end = Math.min(sel.getOffset() + sel.getLimit(), grants.size());
+
+            return new PassClientResult<>(new ArrayList<>(grants.subList(start, end)),
+                    totals && sel.isTotals() ? grants.size() : -1);
+        });
+    }
+
+    private List<Grant> create_grants(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new Grant("" + i)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testStreamAllPages() throws IOException {
+        List<Grant> grants = create_grants(53);
+        mock_select(grants, true);
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(5);
+
+        assertEquals(grants, client.streamObjects(sel).collect(Collectors.toList()));
+        assertEquals(0, sel.getOffset());
+        verify(client, times(11)).selectObjects(any());
+    }
+
+    @Test
+    public void testStreamAllPagesUnknownTotal() throws IOException {
+        List<Grant> grants = create_grants(53);
+        mock_select(grants, false);
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(5);
+
+        assertEquals(grants, client.streamObjects(sel, 3).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testStreamTotalsOnlyFirstPage() throws IOException {
+        List<Grant> grants = create_grants(25);
+        mock_select(grants, true);
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(10);
+
+        assertEquals(grants, client.streamObjects(sel).collect(Collectors.toList()));
+        verify(client, times(1)).selectObjects(argThat(s -> s.isTotals()));
+        verify(client, times(2)).selectObjects(argThat(s -> !s.isTotals()));
+    }
+
+    @Test
+    public void testStreamWithoutTotals() throws IOException {
+        List<Grant> grants = create_grants(25);
+        mock_select(grants, true);
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(10);
+        sel.setTotals(false);
+
+        assertEquals(grants, client.streamObjects(sel).parallel().collect(Collectors.toList()));
+        verify(client, never()).selectObjects(argThat(s -> s.isTotals()));
+    }
+
+    @Test
+    public void testStreamFromOffset() throws IOException {
+        List<Grant> grants = create_grants(20);
+        mock_select(grants, true);
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(3);
+        sel.setOffset(7);
+
+        assertEquals(grants.subList(7, 20), client.streamObjects(sel).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testStreamParallel() throws IOException {
+        List<Grant> grants = create_grants(1003);
+        mock_select(grants, true);
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(10);
+
+        assertEquals(grants, client.streamObjects(sel).parallel().collect(Collectors.toList()));
+        verify(client, times(101)).selectObjects(any());
+    }
+
+    @Test
+    public void testStreamKeyset() throws IOException {
+        List<Grant> grants = create_grants(47);
+
+        when(client.selectObjects(any())).thenAnswer(inv -> {
+            PassClientSelector<?> sel = inv.getArgument(0);
+            long after = sel.getAfterId() == null ? -1 : Long.parseLong(sel.getAfterId());
+
+            assertTrue(sel.isKeyset());
+
+            return new PassClientResult<>(grants.stream().filter(g -> Long.parseLong(g.getId()) > after)
+                    .limit(sel.getLimit()).collect(Collectors.toList()), -1);
+        });
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(10);
+        sel.setKeyset(true);
+
+        assertEquals(grants, client.streamObjects(sel).parallel().collect(Collectors.toList()));
+        assertNull(sel.getAfterId());
+        verify(client, times(6)).selectObjects(any());
+    }
+
+    @Test
+    public void testFindFirstDoesNotPrefetch() throws IOException {
+        List<Grant> grants = create_grants(100);
+        mock_select(grants, true);
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(10);
+
+        assertEquals(grants.get(0), client.streamObjects(sel).findFirst().get());
+        verify(client, times(1)).selectObjects(any());
+    }
+
+    @Test
+    public void testStreamEmpty() throws IOException {
+        mock_select(new ArrayList<>(), true);
+
+        assertEquals(0, client.streamObjects(new PassClientSelector<>(Grant.class)).count());
+    }
+
+    @Test
+    public void testStreamFailure() throws IOException {
+        List<Grant> grants = create_grants(30);
+
+        when(client.selectObjects(any())).thenAnswer(inv -> {
+            PassClientSelector<?> sel = inv.getArgument(0);
+
+            if (sel.getOffset() > 0) {
+                throw new IOException("Failed");
+            }
+
+            return new PassClientResult<>(grants.subList(0, sel.getLimit()), grants.size());
+        });
+
+        PassClientSelector<Grant> sel = new PassClientSelector<>(Grant.class);
+        sel.setLimit(10);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> client.streamObjects(sel).count());
+        assertEquals(IOException.class, ex.getCause().getClass());
+    }
+}
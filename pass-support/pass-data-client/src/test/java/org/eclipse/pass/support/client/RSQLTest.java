@@ -12,6 +12,8 @@ public class RSQLTest {
         assertEquals("name=in=('value1','value2')", RSQL.in("name", "value1", "value2"));
         assertEquals("name=out=('value1','value2')", RSQL.out("name", "value1", "value2"));
         assertEquals("name!='value'", RSQL.notEquals("name", "value"));
+        assertEquals("name=gt='1'", RSQL.gt("name", "1"));
+        assertEquals("name=lt='1'", RSQL.lt("name", "1"));
     }
 
     @Test
@@ -22,6 +24,13 @@ public class RSQLTest {
                 RSQL.or(RSQL.equals("name1", "value1"), RSQL.equals("name2", "value2")));
     }
 
+    @Test
+    public void testMembership() {
+        assertEquals("ids=hasmember='a'", RSQL.hasMember("ids", "a"));
+        assertEquals("ids=hasnomember='a'", RSQL.hasNoMember("ids", "a"));
+        assertEquals("(ids=hasmember='a',ids=hasmember='b')", RSQL.hasAnyMember("ids", "a", "b"));
+    }
+
     @Test
     public void testEscape() {
         assertEquals("name=='v\\\\a\\'lu\\\"e'", RSQL.equals("name", "v\\a'lu\"e"));
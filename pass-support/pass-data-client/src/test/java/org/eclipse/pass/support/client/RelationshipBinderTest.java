@@ -0,0 +1,59 @@
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.pass.support.client.model.Grant;
+import org.eclipse.pass.support.client.model.Journal;
+import org.eclipse.pass.support.client.model.Publication;
+import org.eclipse.pass.support.client.model.Submission;
+import org.eclipse.pass.support.client.model.User;
+import org.junit.jupiter.api.Test;
+
+public class RelationshipBinderTest {
+    private final RelationshipBinder binder = new RelationshipBinder(Grant.class, Journal.class,
+            Publication.class, Submission.class, User.class);
+
+    @Test
+    public void testCreateTarget() {
+        assertEquals(new Journal("1"), binder.createTarget("journal", "1"));
+        assertThrows(IllegalArgumentException.class, () -> binder.createTarget("moo", "1"));
+    }
+
+    @Test
+    public void testSetToOneRelationship() {
+        Publication pub = new Publication("2");
+
+        binder.setRelationship(pub, "journal", "journal", Collections.singletonList("3"), false);
+
+        assertEquals(new Journal("3"), pub.getJournal());
+    }
+
+    @Test
+    public void testSetToManyRelationship() {
+        Grant grant = new Grant("4");
+
+        binder.setRelationship(grant, "coPis", "user", Arrays.asList("5", "6"), true);
+
+        assertEquals(Arrays.asList(new User("5"), new User("6")), grant.getCoPis());
+        assertThrows(IllegalArgumentException.class, () -> binder.setRelationship(grant, "moo", "user",
+                Arrays.asList("5"), true));
+    }
+
+    @Test
+    public void testGetNullToOneRelationships() {
+        Submission sub = new Submission("7");
+        sub.setPublication(new Publication("8"));
+
+        List<String> rels = binder.getNullToOneRelationships(sub);
+
+        assertEquals(1, rels.size());
+        assertTrue(rels.contains("submitter"));
+        assertTrue(binder.getNullToOneRelationships(new Journal("9")).isEmpty());
+    }
+}
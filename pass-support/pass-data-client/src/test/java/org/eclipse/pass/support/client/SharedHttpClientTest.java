@@ -0,0 +1,33 @@
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.Test;
+
+public class SharedHttpClientTest {
+    @Test
+    public void testShared() {
+        OkHttpClient client = SharedHttpClient.get();
+
+        assertSame(client, SharedHttpClient.get());
+
+        // Derived clients share the pool and dispatcher
+        OkHttpClient derived = client.newBuilder().build();
+        assertSame(client.connectionPool(), derived.connectionPool());
+        assertSame(client.dispatcher(), derived.dispatcher());
+    }
+
+    @Test
+    public void testDefaults() {
+        OkHttpClient client = SharedHttpClient.get();
+
+        assertEquals(SharedHttpClient.DEFAULT_MAX_REQUESTS, client.dispatcher().getMaxRequests());
+        assertEquals(SharedHttpClient.DEFAULT_MAX_REQUESTS_PER_HOST, client.dispatcher().getMaxRequestsPerHost());
+        assertEquals(List.of(Protocol.HTTP_1_1), client.protocols());
+    }
+}
@@ -19,11 +19,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 
+import org.eclipse.pass.support.client.BinaryInputStream;
 import org.eclipse.pass.support.client.PassClient;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.core.io.AbstractResource;
 
 /**
+ * Resource for the binary of a PASS File. The binary is streamed from the PASS file service.
+ * The content length is recorded from the download response, or requested from the file service with a HEAD
+ * request, rather than by reading the binary.
+ *
  * @author Russ Poetker (rpoetke1@jh.edu)
  */
 public class PassFileResource extends AbstractResource {
@@ -31,6 +36,9 @@ public class PassFileResource extends AbstractResource {
     private final PassClient passClient;
     private final String passFileId;
 
+    // Length reported by the file service or -1 if not known
+    private volatile long contentLength = -1;
+
     public PassFileResource(PassClient passClient, String passFileId) {
         this.passClient = passClient;
         this.passFileId = passFileId;
@@ -39,7 +47,23 @@ public class PassFileResource extends AbstractResource {
     @NotNull
     @Override
     public InputStream getInputStream() throws IOException {
-        return passClient.downloadFile(passFileId);
+        InputStream result = passClient.downloadFile(passFileId);
+
+        if (result instanceof BinaryInputStream binaryInputStream) {
+            contentLength = binaryInputStream.getContentLength();
+        }
+
+        return result;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        if (contentLength < 0) {
+            // Ask the file service for the length without transferring the binary
+            contentLength = passClient.getFileLength(passFileId);
+        }
+
+        return contentLength >= 0 ? contentLength : super.contentLength();
     }
 
     @NotNull
@@ -39,6 +39,7 @@ import org.eclipse.pass.deposit.status.DepositStatusProcessor;
 import org.eclipse.pass.deposit.status.DepositStatusResolver;
 import org.eclipse.pass.deposit.support.swordv2.ResourceResolverImpl;
 import org.eclipse.pass.deposit.transport.Transport;
+import org.eclipse.pass.support.client.JsonApiPassClient;
 import org.eclipse.pass.support.client.PassClient;
 import org.eclipse.pass.support.client.SubmissionStatusService;
 import org.slf4j.Logger;
@@ -70,9 +71,14 @@ public class DepositConfig {
     @Value("${pass.client.password}")
     private String passClientPassword;
 
+    @Value("${pass.client.cache.size:0}")
+    private int passClientCacheSize;
+
     @Bean
     public PassClient passClient() {
-        return PassClient.newInstance(passClientUrl, passClientUser, passClientPassword);
+        JsonApiPassClient client = new JsonApiPassClient(passClientUrl, passClientUser, passClientPassword);
+        client.setCacheSize(passClientCacheSize);
+        return client;
     }
 
     @Bean
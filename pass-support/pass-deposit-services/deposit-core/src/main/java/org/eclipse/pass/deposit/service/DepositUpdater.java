@@ -63,6 +63,10 @@ public class DepositUpdater {
                 RSQL.gte("submission.submittedDate", DATE_TIME_FORMATTER.format(submissionFromDate))
             )
         );
+        sel.setKeyset(true);
+        sel.setTotals(false);
+        // Failed deposits are retrieved again in full when retried
+        sel.setFields(Deposit.class, "depositStatus");
         List<Deposit> deposits = passClient.streamObjects(sel).toList();
         LOG.warn("Deposit Count for updating: " + deposits.size());
 
@@ -22,11 +22,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.eclipse.pass.deposit.DepositServiceErrorHandler;
 import org.eclipse.pass.deposit.DepositServiceRuntimeException;
@@ -123,13 +126,19 @@ public class SubmissionProcessor implements Consumer<Submission> {
 
         LOG.info("Processing Submission {}", submission.getId());
 
-        updatedS.getRepositories()
+        // Retrieve the repositories concurrently
+        List<CompletableFuture<Repository>> repoFutures = updatedS.getRepositories()
                 .stream()
-                .map(repo -> {
+                .map(repo -> passClient.getObjectAsync(repo))
+                .toList();
+
+        IntStream.range(0, repoFutures.size())
+                .mapToObj(i -> {
                     try {
-                        return passClient.getObject(repo);
-                    } catch (IOException e) {
-                        throw new RuntimeException("Failed to retrieve reposigtory: " + repo.getId(), e);
+                        return repoFutures.get(i).join();
+                    } catch (CompletionException e) {
+                        throw new RuntimeException("Failed to retrieve repository: "
+                                                   + updatedS.getRepositories().get(i).getId(), e.getCause());
                     }
                 })
                 .filter(repo -> IntegrationType.WEB_LINK != repo.getIntegrationType())
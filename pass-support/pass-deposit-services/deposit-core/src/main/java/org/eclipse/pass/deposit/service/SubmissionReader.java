@@ -16,7 +16,10 @@
 package org.eclipse.pass.deposit.service;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.eclipse.pass.support.client.PassClient;
 import org.eclipse.pass.support.client.PassClientResult;
@@ -41,27 +44,40 @@ public class SubmissionReader {
     }
 
     public Submission readPassSubmission(String submissionId, List<PassEntity> entities) throws IOException {
+        // The files only depend on the submission id so retrieve them while the submission is retrieved
+        PassClientSelector<File> fileSelector = new PassClientSelector<>(File.class);
+        fileSelector.setFilter(RSQL.equals("submission.id", submissionId));
+        CompletableFuture<PassClientResult<File>> resultFile = passClient.selectObjectsAsync(fileSelector);
 
         Submission submission = passClient.getObject(Submission.class, submissionId, "publication",
             "repositories", "submitter", "preparers", "grants", "effectivePolicies");
 
-        List<Grant> populatedGrants = submission.getGrants().stream()
-            .map(grant -> {
-                try {
-                    return passClient.getObject(grant, "primaryFunder", "directFunder", "pi", "coPis");
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }).toList();
+        // Retrieve the grants concurrently
+        List<CompletableFuture<Grant>> grantFutures = submission.getGrants().stream()
+            .map(grant -> passClient.getObjectAsync(grant, "primaryFunder", "directFunder", "pi", "coPis"))
+            .toList();
+
+        List<Grant> populatedGrants = new ArrayList<>();
+        for (CompletableFuture<Grant> grantFuture : grantFutures) {
+            populatedGrants.add(join(grantFuture));
+        }
         submission.setGrants(populatedGrants);
 
         entities.removeIf(passEntity -> passEntity.getId().equals(submission.getId()));
         entities.add(submission);
 
-        PassClientSelector<File> fileSelector = new PassClientSelector<>(File.class);
-        fileSelector.setFilter(RSQL.equals("submission.id", submission.getId()));
-        PassClientResult<File> resultFile = passClient.selectObjects(fileSelector);
-        entities.addAll(resultFile.getObjects());
+        entities.addAll(join(resultFile).getObjects());
         return submission;
     }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+    }
 }
@@ -70,6 +70,8 @@ public class SubmissionStatusUpdater {
                 RSQL.equals("submitted", "true")
             )
         );
+        sel.setKeyset(true);
+        sel.setTotals(false);
         List<Submission> submissions = passClient.streamObjects(sel).toList();
         LOG.warn("Submission Count for updating: " + submissions.size());
 
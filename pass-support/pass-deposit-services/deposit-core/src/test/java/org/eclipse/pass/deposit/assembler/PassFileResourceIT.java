@@ -15,8 +15,10 @@
  */
 package org.eclipse.pass.deposit.assembler;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -50,4 +52,27 @@ public class PassFileResourceIT extends AbstractDepositSubmissionIT {
         String actualData = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
         assertEquals(expectedData, actualData);
     }
+
+    @Test
+    void testContentLength() throws IOException {
+        // GIVEN
+        File file = new File();
+        byte[] expectedData = "What's in a name?".getBytes(StandardCharsets.UTF_8);
+        file.setName("rose.txt");
+        URI fileUri = passClient.uploadBinary(file.getName(), new ByteArrayInputStream(expectedData),
+            expectedData.length);
+        file.setUri(fileUri);
+        passClient.createObject(file);
+
+        PassFileResource passFileResource = new PassFileResource(passClient, file.getId());
+
+        // WHEN
+        long contentLength = passFileResource.contentLength();
+
+        // THEN
+        assertEquals(expectedData.length, contentLength);
+        try (InputStream inputStream = passFileResource.getInputStream()) {
+            assertArrayEquals(expectedData, inputStream.readAllBytes());
+        }
+    }
 }
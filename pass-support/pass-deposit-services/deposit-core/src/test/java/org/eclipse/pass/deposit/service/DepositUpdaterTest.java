@@ -15,6 +15,8 @@
  */
 package org.eclipse.pass.deposit.service;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -63,5 +65,8 @@ public class DepositUpdaterTest {
         verify(passClient).streamObjects(argument.capture());
         assertTrue(argument.getValue().getFilter().startsWith(
             "(depositStatus=in=('submitted','failed');submission.submittedDate>="));
+        assertTrue(argument.getValue().isKeyset());
+        assertFalse(argument.getValue().isTotals());
+        assertArrayEquals(new String[] {"depositStatus"}, argument.getValue().getFields().get(Deposit.class));
     }
 }
@@ -41,6 +41,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiPredicate;
 
 import org.eclipse.pass.deposit.DepositServiceErrorHandler;
@@ -140,11 +141,7 @@ public class SubmissionProcessorTest {
         // Mock the interactions with the repository that create Deposit resources, insuring the SubmissionProcessor
         // sets the correct state on newly created Deposits.
         repositories.forEach(repo -> {
-            try {
-                when(passClient.getObject(repo)).thenReturn(repo);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            when(passClient.getObjectAsync(repo)).thenReturn(CompletableFuture.completedFuture(repo));
             when(packagerRegistry.get(repo.getName())).thenReturn(mock(Packager.class));
         });
 
@@ -167,11 +164,7 @@ public class SubmissionProcessorTest {
             // Verify that each Repository was read from the Pass Core repository, and that a Packager for each
             // Repository was resolved from the PackagerRegistry
             repositories.forEach(repo -> {
-                try {
-                    verify(passClient).getObject(repo);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
+                verify(passClient).getObjectAsync(repo);
                 verify(packagerRegistry).get(repo.getName());
             });
 
@@ -221,11 +214,7 @@ public class SubmissionProcessorTest {
         // Mock the interactions with the repository that create Deposit resources, insuring the SubmissionProcessor
         // sets the correct state on newly created Deposits.
         repositories.forEach(repo -> {
-            try {
-                when(passClient.getObject(repo)).thenReturn(repo);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            when(passClient.getObjectAsync(repo)).thenReturn(CompletableFuture.completedFuture(repo));
             when(packagerRegistry.get(repo.getName())).thenReturn(mock(Packager.class));
         });
 
@@ -378,7 +367,7 @@ public class SubmissionProcessorTest {
         RuntimeException expectedCause = new RuntimeException("Error saving Deposit resource.");
         repositories.forEach(repo -> {
             try {
-                when(passClient.getObject(repo)).thenReturn(repo);
+                when(passClient.getObjectAsync(repo)).thenReturn(CompletableFuture.completedFuture(repo));
                 doThrow(expectedCause).when(passClient).createObject(any(Deposit.class));
                 when(packagerRegistry.get(repo.getName())).thenReturn(mock(Packager.class));
             } catch (IOException e) {
@@ -429,11 +418,7 @@ public class SubmissionProcessorTest {
         when(cri.performCritical(any(), any(), any(), any(BiPredicate.class), any())).thenReturn(criResult);
 
         repositories.forEach(repo -> {
-            try {
-                when(passClient.getObject(repo)).thenReturn(repo);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            when(passClient.getObjectAsync(repo)).thenReturn(CompletableFuture.completedFuture(repo));
             // Packagers are looked up by name of the repository
             // Return 'null' to mock an error in resolving the Packager
             when(packagerRegistry.get(repo.getName())).thenReturn(null);
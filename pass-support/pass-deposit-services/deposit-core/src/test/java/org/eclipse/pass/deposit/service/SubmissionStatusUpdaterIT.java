@@ -25,8 +25,6 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.List;
 
-import org.eclipse.pass.support.client.PassClientSelector;
-import org.eclipse.pass.support.client.RSQL;
 import org.eclipse.pass.support.client.SubmissionStatusService;
 import org.eclipse.pass.support.client.model.Submission;
 import org.eclipse.pass.support.client.model.SubmissionStatus;
@@ -49,16 +47,15 @@ public class SubmissionStatusUpdaterIT extends AbstractSubmissionIT {
 
     @BeforeEach
     void initSubmission() throws IOException {
-        PassClientSelector<Submission> sel = new PassClientSelector<>(Submission.class);
-        sel.setFilter(RSQL.equals("metadata", "substatusupdatetest"));
-        List<Submission> submissions = passClient.streamObjects(sel).toList();
-        if (submissions.isEmpty()) {
+        // Metadata is JSON and cannot be compared with an RSQL filter, so the metadata endpoint is used
+        List<String> submissionIds = passClient.findSubmissionsByMetadata("test", "substatusupdatetest");
+        if (submissionIds.isEmpty()) {
             Submission newSubmission = new Submission();
-            newSubmission.setMetadata("substatusupdatetest");
+            newSubmission.setMetadata("{\"test\": \"substatusupdatetest\"}");
             passClient.createObject(newSubmission);
             submission = newSubmission;
         } else {
-            submission = submissions.get(0);
+            submission = passClient.getObject(Submission.class, submissionIds.get(0));
             submission.setSubmissionStatus(null);
             submission.setSubmitted(false);
             passClient.updateObject(submission);
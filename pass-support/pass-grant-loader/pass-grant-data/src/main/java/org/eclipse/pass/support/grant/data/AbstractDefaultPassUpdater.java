@@ -36,8 +36,10 @@ import static org.eclipse.pass.support.grant.data.DateTimeUtil.createZonedDateTi
 
 import java.io.IOException;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -73,6 +75,16 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
     private static final String GRANT_ID_TYPE = "grant";
     private static final String FUNDER_ID_TYPE = "funder";
 
+    /**
+     * Max number of users resolved by a single query.
+     */
+    static final int USER_LOOKUP_BATCH_SIZE = 25;
+
+    /**
+     * Max number of grants looked up by a single query and max number of grants or users written by a single batch.
+     */
+    static final int BATCH_SIZE = 50;
+
     private String domain = "default.domain";
     private String latestUpdateString = "";
 
@@ -87,6 +99,12 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
     private final Map<String, Funder> funderMap = new HashMap<>();
     private final Map<String, User> userMap = new HashMap<>();
 
+    //PASS users by locator id, for the locator ids which have been looked up
+    private final Map<String, List<User>> passUsersByLocatorId = new HashMap<>();
+
+    //PASS users which have been changed, but not yet updated
+    private final List<User> userUpdates = new ArrayList<>();
+
     private String mode;
 
     AbstractDefaultPassUpdater() {
@@ -97,6 +115,8 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
         this.mode = mode;
         userMap.clear();
         funderMap.clear();
+        passUsersByLocatorId.clear();
+        userUpdates.clear();
         statistics.reset();
         statistics.setType(mode);
         switch (mode) {
@@ -158,6 +178,10 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
         LOG.warn("Processing result set with {} rows", results.size());
         boolean modeChecked = false;
 
+        if (!results.isEmpty() && results.iterator().next().containsKey(C_GRANT_LOCAL_KEY)) {
+            resolvePassUsers(results);
+        }
+
         for (Map<String, String> rowMap : results) {
 
             if (!modeChecked) {
@@ -297,15 +321,12 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
             }
         }
 
+        flushUserUpdates();
+
         //now put updated grant objects in pass
-        for (Grant grant : grantRowMap.values()) {
-            String grantLocalKey = grant.getLocalKey();
-            try {
-                Grant updatedGrant = updateGrantInPass(grant);
-                grantResultMap.put(grantLocalKey, updatedGrant);
-            } catch (IOException | GrantDataException e) {
-                LOG.error("Error updating Grant with localKey: " + grantLocalKey, e);
-            }
+        List<Grant> grants = new ArrayList<>(grantRowMap.values());
+        for (int i = 0; i < grants.size(); i += BATCH_SIZE) {
+            updateGrantsInPass(grants.subList(i, Math.min(grants.size(), i + BATCH_SIZE)));
         }
 
         //success - we capture some information to report
@@ -341,6 +362,10 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
 
         LOG.info("Processing result set with {} rows", results.size());
         int userProcessedCounter = 0;
+
+        if (!results.isEmpty() && results.iterator().next().containsKey(C_USER_EMPLOYEE_ID)) {
+            resolvePassUsers(results);
+        }
         for (Map<String, String> rowMap : results) {
 
             if (!modeChecked) {
@@ -366,6 +391,7 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
                 LOG.error("Error processing User: " + rowUser, e);
             }
         }
+        flushUserUpdates();
 
         if (results.size() > 0) {
             statistics.setLatestUpdateString(latestUpdateString);
@@ -487,11 +513,7 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
      * @return the URI for the resource representing the updated User in Pass
      */
     private User updateUserInPass(User systemUser) throws IOException {
-        User passUser = systemUser.getLocatorIds().stream()
-            .map(this::lookupPassUser)
-            .filter(Objects::nonNull)
-            .findFirst()
-            .orElse(null);
+        User passUser = lookupPassUser(systemUser.getLocatorIds());
 
         if (Objects.nonNull(passUser)) {
             User updatedUser = updateUserIfNeeded(systemUser, passUser);
@@ -500,64 +522,219 @@ abstract class AbstractDefaultPassUpdater implements PassUpdater {
                 if (!updatedUser.getRoles().contains(UserRole.SUBMITTER)) {
                     updatedUser.getRoles().add(UserRole.SUBMITTER);
                 }
-                passClient.updateObject(updatedUser);
-                statistics.addUsersUpdated();
+                addPassUser(updatedUser);
+                userUpdates.add(updatedUser);
+                if (userUpdates.size() == BATCH_SIZE) {
+                    flushUserUpdates();
+                }
                 return updatedUser;
             }
         } else if (!mode.equals("user")) {
             passClient.createObject(systemUser);
             statistics.addUsersCreated();
+            addPassUser(systemUser);
             return systemUser;
         }
         return passUser;
     }
 
-    private User lookupPassUser(String locatorId) {
+    /**
+     * Update the changed PASS users with a single batch. Users only need to exist, not to be current, when they
+     * are referenced by a Grant, so their updates can be deferred.
+     */
+    private void flushUserUpdates() {
+        if (userUpdates.isEmpty()) {
+            return;
+        }
+
         try {
-            PassClientSelector<User> selector = new PassClientSelector<>(User.class);
-            selector.setFilter(RSQL.hasMember("locatorIds", locatorId));
-            PassClientResult<User> result = passClient.selectObjects(selector);
-            return result.getObjects().isEmpty() ? null : getSingleObject(result, locatorId);
+            passClient.updateObjects(userUpdates);
+            userUpdates.forEach(user -> statistics.addUsersUpdated());
+        } catch (IOException e) {
+            LOG.error("Error updating Users: " + getPassEntityIds(userUpdates), e);
+        }
+        userUpdates.clear();
+    }
+
+    /**
+     * Look up the PASS users matching the users of all the rows. The users are resolved in batches with a
+     * single query per batch so that processing a row does not require a query for its user.
+     */
+    private void resolvePassUsers(Collection<Map<String, String>> results) {
+        Set<String> employeeIds = new HashSet<>();
+        List<String> batch = new ArrayList<>();
+        int batchUsers = 0;
+
+        try {
+            for (Map<String, String> rowMap : results) {
+                if (!employeeIds.add(rowMap.get(C_USER_EMPLOYEE_ID))) {
+                    continue;
+                }
+
+                batch.addAll(buildUser(rowMap).getLocatorIds());
+
+                if (++batchUsers == USER_LOOKUP_BATCH_SIZE) {
+                    findPassUsers(batch);
+                    batch.clear();
+                    batchUsers = 0;
+                }
+            }
+
+            findPassUsers(batch);
+        } catch (Exception e) {
+            //users which were not resolved are looked up when their row is processed
+            LOG.error("Error looking up users of the result set", e);
+        }
+    }
+
+    /**
+     * Find all the PASS users matching any of the locator ids with a single query.
+     */
+    private void findPassUsers(List<String> locatorIds) throws IOException {
+        if (locatorIds.isEmpty()) {
+            return;
+        }
+
+        PassClientSelector<User> selector = new PassClientSelector<>(User.class);
+        selector.setFilter(RSQL.hasAnyMember("locatorIds", locatorIds.toArray(String[]::new)));
+        List<User> users = passClient.selectObjects(selector).getObjects();
+
+        locatorIds.forEach(id -> passUsersByLocatorId.putIfAbsent(id, new ArrayList<>()));
+        users.forEach(this::addPassUser);
+    }
+
+    private void addPassUser(User user) {
+        for (String locatorId : user.getLocatorIds()) {
+            List<User> users = passUsersByLocatorId.computeIfAbsent(locatorId, id -> new ArrayList<>());
+            users.removeIf(u -> Objects.equals(u.getId(), user.getId()));
+            users.add(user);
+        }
+    }
+
+    /**
+     * Find the user matching the first locator id which matches any user. Users which were not resolved with
+     * the other users of the rows are resolved with a single query.
+     */
+    private User lookupPassUser(List<String> locatorIds) {
+        if (locatorIds.isEmpty()) {
+            return null;
+        }
+
+        try {
+            if (!passUsersByLocatorId.keySet().containsAll(locatorIds)) {
+                findPassUsers(locatorIds);
+            }
+
+            for (String locatorId : locatorIds) {
+                List<User> matches = passUsersByLocatorId.getOrDefault(locatorId, List.of());
+
+                if (matches.size() > 1) {
+                    throw new GrantDataException("More than a single object returned for key: " + locatorId);
+                } else if (matches.size() == 1) {
+                    return matches.get(0);
+                }
+            }
+
+            return null;
         } catch (IOException | GrantDataException e) {
             throw new RuntimeException(e);
         }
     }
 
     /**
-     * Take a new Grant object populated as fully as possible from the COEUS pull, and use this
-     * new information to update an object for the same Grant in Pass (if it exists)
+     * Take new Grant objects populated as fully as possible from the COEUS pull, and use this
+     * new information to update objects for the same Grants in Pass (if they exist). The stored Grants
+     * are looked up with a single query and the new and changed Grants are written in batches.
+     * The Grants which were stored are put on the grant result map by their base local key.
      *
-     * @param systemGrant the new Grant object populated from COEUS
-     * @return the PASS identifier for the Grant object
+     * @param systemGrants the new Grant objects populated from COEUS
      */
-    private Grant updateGrantInPass(Grant systemGrant) throws IOException, GrantDataException {
-        String baseLocalKey = systemGrant.getLocalKey();
-        String fullLocalKey = GrantDataUtils.buildLocalKey(domain, GRANT_ID_TYPE, baseLocalKey);
-        systemGrant.setLocalKey(fullLocalKey);
+    private void updateGrantsInPass(List<Grant> systemGrants) {
+        Map<String, String> baseLocalKeys = new HashMap<>();
+        for (Grant systemGrant : systemGrants) {
+            String baseLocalKey = systemGrant.getLocalKey();
+            String fullLocalKey = GrantDataUtils.buildLocalKey(domain, GRANT_ID_TYPE, baseLocalKey);
+            systemGrant.setLocalKey(fullLocalKey);
+            baseLocalKeys.put(fullLocalKey, baseLocalKey);
+        }
+
+        Map<String, List<Grant>> storedGrants;
+        try {
+            storedGrants = findPassGrants(baseLocalKeys.keySet());
+        } catch (IOException | GrantDataException e) {
+            LOG.error("Error looking up Grants with localKeys: " + baseLocalKeys.values(), e);
+            return;
+        }
+
+        List<Grant> createdGrants = new ArrayList<>();
+        List<Grant> updatedGrants = new ArrayList<>();
+
+        for (Grant systemGrant : systemGrants) {
+            String fullLocalKey = systemGrant.getLocalKey();
+            List<Grant> stored = storedGrants.getOrDefault(fullLocalKey, List.of());
+
+            if (stored.size() > 1) {
+                LOG.error("Error updating Grant, more than a single object returned for key: " + fullLocalKey);
+            } else if (stored.size() == 1) {
+                LOG.debug("Found grant with localKey {}", fullLocalKey);
+                Grant storedGrant = stored.get(0);
+                Grant updatedGrant = updateGrantIfNeeded(systemGrant, storedGrant);
+                if (Objects.nonNull(updatedGrant)) { //need to update
+                    LOG.debug("Updating grant with local key {}", fullLocalKey);
+                    updatedGrants.add(updatedGrant);
+                } else {
+                    grantResultMap.put(baseLocalKeys.get(fullLocalKey), storedGrant);
+                }
+            } else { //don't have a stored Grant for this URI - this one is new to Pass
+                LOG.debug("Creating grant with local key {}", fullLocalKey);
+                createdGrants.add(systemGrant);
+            }
+        }
+
+        try {
+            if (!createdGrants.isEmpty()) {
+                passClient.createObjects(createdGrants);
+            }
+            for (Grant grant : createdGrants) {
+                statistics.addGrantsCreated();
+                grantResultMap.put(baseLocalKeys.get(grant.getLocalKey()), grant);
+            }
+        } catch (IOException e) {
+            LOG.error("Error creating Grants with localKeys: " + getLocalKeys(createdGrants), e);
+        }
+
+        try {
+            if (!updatedGrants.isEmpty()) {
+                passClient.updateObjects(updatedGrants);
+            }
+            for (Grant grant : updatedGrants) {
+                statistics.addGrantsUpdated();
+                grantResultMap.put(baseLocalKeys.get(grant.getLocalKey()), grant);
+            }
+        } catch (IOException e) {
+            LOG.error("Error updating Grants with localKeys: " + getLocalKeys(updatedGrants), e);
+        }
+    }
 
-        LOG.debug("Looking for grant with localKey {}", fullLocalKey);
+    /**
+     * Find the PASS grants with any of the full local keys with a single query.
+     */
+    private Map<String, List<Grant>> findPassGrants(Collection<String> fullLocalKeys)
+            throws IOException, GrantDataException {
         PassClientSelector<Grant> selector = new PassClientSelector<>(Grant.class);
-        selector.setFilter(RSQL.equals("localKey", fullLocalKey));
+        selector.setFilter(RSQL.in("localKey", fullLocalKeys.toArray(String[]::new)));
         selector.setInclude("primaryFunder", "directFunder", "pi", "coPis");
         PassClientResult<Grant> result = passClient.selectObjects(selector);
 
-        if (!result.getObjects().isEmpty()) {
-            LOG.debug("Found grant with localKey {}", fullLocalKey);
-            Grant storedGrant = getSingleObject(result, fullLocalKey);
-            Grant updatedGrant = updateGrantIfNeeded(systemGrant, storedGrant);
-            if (Objects.nonNull(updatedGrant)) { //need to update
-                passClient.updateObject(updatedGrant);
-                statistics.addGrantsUpdated();
-                LOG.debug("Updating grant with local key {}", systemGrant.getLocalKey());
-                return updatedGrant;
-            }
-            return storedGrant;
-        } else { //don't have a stored Grant for this URI - this one is new to Pass
-            passClient.createObject(systemGrant);
-            statistics.addGrantsCreated();
-            LOG.debug("Creating grant with local key {}", systemGrant.getLocalKey());
+        if (result.getTotal() > result.getObjects().size()) {
+            throw new GrantDataException("Too many objects returned for keys: " + fullLocalKeys);
         }
-        return systemGrant;
+
+        return result.getObjects().stream().collect(Collectors.groupingBy(Grant::getLocalKey));
+    }
+
+    private List<String> getLocalKeys(List<Grant> grants) {
+        return grants.stream().map(Grant::getLocalKey).collect(Collectors.toList());
     }
 
     private <T extends PassEntity> T getSingleObject(PassClientResult<T> result, String key) throws GrantDataException {
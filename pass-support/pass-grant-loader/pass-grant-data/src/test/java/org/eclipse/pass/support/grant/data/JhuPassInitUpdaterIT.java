@@ -42,6 +42,7 @@ import static org.eclipse.pass.support.grant.data.JhuPassUpdater.JHED_LOCATOR_ID
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -218,6 +219,7 @@ public class JhuPassInitUpdaterIT {
         User user2 = getVerifiedUser(2);
 
         verify(spyPassClient, times(0)).updateObject(any());
+        verify(spyPassClient, times(0)).updateObjects(anyList());
         assertEquals(grantAwardNumber[0], passGrant.getAwardNumber());//initial
         assertEquals(AwardStatus.ACTIVE, passGrant.getAwardStatus());
         assertEquals(grantIdPrefix + grantLocalKey[0], passGrant.getLocalKey());
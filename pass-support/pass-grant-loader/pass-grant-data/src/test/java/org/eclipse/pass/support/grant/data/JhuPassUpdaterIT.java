@@ -42,6 +42,7 @@ import static org.eclipse.pass.support.grant.data.JhuPassUpdater.JHED_LOCATOR_ID
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -204,7 +205,7 @@ public class JhuPassUpdaterIT {
         passUpdater.updatePass(resultSet, "grant");
 
         // THEN
-        verify(spyPassClient, times(1)).createObject(any(Grant.class));
+        verify(spyPassClient, times(1)).createObjects(anyList());
         PassClientSelector<Grant> grantSelector = new PassClientSelector<>(Grant.class);
         grantSelector.setFilter(RSQL.equals("localKey", grantIdPrefix + grantLocalKey[3]));
         grantSelector.setInclude("primaryFunder", "directFunder", "pi", "coPis");
@@ -237,6 +238,7 @@ public class JhuPassUpdaterIT {
 
         // THEN
         verify(spyPassClient, times(0)).updateObject(any());
+        verify(spyPassClient, times(0)).updateObjects(anyList());
         PassClientResult<Grant> resultGrant2 = passClient.selectObjects(grantSelector);
         assertEquals(1, resultGrant2.getTotal());
         Grant passGrant2 = resultGrant2.getObjects().get(0);
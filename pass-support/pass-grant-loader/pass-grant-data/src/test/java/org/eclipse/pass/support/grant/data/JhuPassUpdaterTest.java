@@ -17,8 +17,12 @@ package org.eclipse.pass.support.grant.data;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -71,7 +75,7 @@ public class JhuPassUpdaterTest {
                 .selectObjects(
                         argThat(passClientSelector ->
                                 passClientSelector.getFilter().equals(
-                                        "localKey=='johnshopkins.edu:grant:8675309'")));
+                                        "localKey=in=('johnshopkins.edu:grant:8675309')")));
 
         JhuPassUpdater passUpdater = new JhuPassUpdater();
         FieldUtils.writeField(passUpdater, "passClient", passClientMock, true);
@@ -88,6 +92,11 @@ public class JhuPassUpdaterTest {
         Map<String, User> userMap = (Map<String, User>) FieldUtils.readField(passUpdater, "userMap", true);
         assertEquals(grant.getPi(), userMap.get("0000333"));
         assertEquals(grant.getCoPis().get(0), userMap.get("0000222"));
+        assertEquals("0000333", grant.getPi().getId());
+        assertEquals("0000222", grant.getCoPis().get(0).getId());
+        verify(passClientMock, times(1)).selectObjects(
+                argThat(passClientSelector -> passClientSelector.getFilter().contains("locatorIds=hasmember")));
+        verify(passClientMock, times(1)).createObjects(List.of(grant));
 
         assertEquals("12345678", grant.getAwardNumber());
         assertEquals(AwardStatus.ACTIVE, grant.getAwardStatus());
@@ -108,13 +117,15 @@ public class JhuPassUpdaterTest {
         preparePassClientMockCallsGrantRelations();
         Grant grant1 = new Grant("8675309");
         Grant grant2 = new Grant("8675309");
+        grant1.setLocalKey("johnshopkins.edu:grant:8675309");
+        grant2.setLocalKey("johnshopkins.edu:grant:8675309");
         PassClientResult<PassEntity> mockGrantResult = new PassClientResult<>(List.of(grant1, grant2), 2);
         doReturn(mockGrantResult)
                 .when(passClientMock)
                 .selectObjects(
                         argThat(passClientSelector ->
                                 passClientSelector.getFilter().equals(
-                                        "localKey=='johnshopkins.edu:grant:8675309'")));
+                                        "localKey=in=('johnshopkins.edu:grant:8675309')")));
 
         JhuPassUpdater passUpdater = new JhuPassUpdater();
         FieldUtils.writeField(passUpdater, "passClient", passClientMock, true);
@@ -122,6 +133,7 @@ public class JhuPassUpdaterTest {
 
         Map<String, Grant> grantMap = passUpdater.getGrantResultMap();
         assertEquals(0, grantMap.size()); // no update to grant since pass returns duplicate
+        verify(passClientMock, never()).createObjects(anyList());
     }
 
     private List<Map<String, String>> buildTestInputResultSet() {
@@ -218,22 +230,19 @@ public class JhuPassUpdaterTest {
                         argThat(passClientSelector2 ->
                                 passClientSelector2.getFilter().equals("localKey=='johnshopkins.edu:funder:8675309'")));
 
+        //the users of all rows are resolved with a single query
         User user1 = new User("0000333");
-        PassClientResult<PassEntity> mockUserResult3 = new PassClientResult<>(List.of(user1), 1);
-        doReturn(mockUserResult3)
-                .when(passClientMock)
-                .selectObjects(
-                        argThat(passClientSelector3 ->
-                                passClientSelector3.getFilter().equals(
-                                        "locatorIds=hasmember='johnshopkins.edu:employeeid:0000333'")));
-
+        user1.setLocatorIds(new ArrayList<>(List.of("johnshopkins.edu:employeeid:0000333")));
         User user2 = new User("0000222");
-        PassClientResult<PassEntity> mockUserResult4 = new PassClientResult<>(List.of(user2), 1);
-        doReturn(mockUserResult4)
+        user2.setLocatorIds(new ArrayList<>(List.of("johnshopkins.edu:employeeid:0000222")));
+        PassClientResult<PassEntity> mockUserResult = new PassClientResult<>(List.of(user1, user2), 2);
+        doReturn(mockUserResult)
                 .when(passClientMock)
                 .selectObjects(
-                        argThat(passClientSelector4 ->
-                                passClientSelector4.getFilter().equals(
+                        argThat(passClientSelector3 ->
+                                passClientSelector3.getFilter().contains(
+                                        "locatorIds=hasmember='johnshopkins.edu:employeeid:0000333'")
+                                && passClientSelector3.getFilter().contains(
                                         "locatorIds=hasmember='johnshopkins.edu:employeeid:0000222'")));
     }
 
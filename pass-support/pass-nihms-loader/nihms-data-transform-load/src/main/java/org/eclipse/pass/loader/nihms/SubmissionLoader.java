@@ -81,22 +81,31 @@ public class SubmissionLoader {
         }
 
         Submission submission = dto.getSubmission();
-        if (submission.getId() == null) {
+        RepositoryCopy repositoryCopy = dto.getRepositoryCopy();
+        if (submission.getId() == null && repositoryCopy != null && repositoryCopy.getId() == null) {
+            //both only depend on the publication, so they can be created with a single request
             submission.setPublication(publication);
-            clientService.createSubmission(submission);
-        } else if (dto.doUpdateSubmission()) {
-            clientService.updateSubmission(submission);
-        }
+            repositoryCopy.setPublication(publication);
+            clientService.createSubmissionAndRepositoryCopy(submission, repositoryCopy);
+        } else {
+            if (submission.getId() == null) {
+                submission.setPublication(publication);
+                clientService.createSubmission(submission);
+            } else if (dto.doUpdateSubmission()) {
+                clientService.updateSubmission(submission);
+            }
 
-        RepositoryCopy repositoryCopy = dto.getRepositoryCopy();
-        if (repositoryCopy != null) {
-            if (repositoryCopy.getId() == null) {
-                repositoryCopy.setPublication(publication);
-                clientService.createRepositoryCopy(repositoryCopy);
-            } else if (dto.doUpdateRepositoryCopy()) {
-                clientService.updateRepositoryCopy(repositoryCopy);
+            if (repositoryCopy != null) {
+                if (repositoryCopy.getId() == null) {
+                    repositoryCopy.setPublication(publication);
+                    clientService.createRepositoryCopy(repositoryCopy);
+                } else if (dto.doUpdateRepositoryCopy()) {
+                    clientService.updateRepositoryCopy(repositoryCopy);
+                }
             }
+        }
 
+        if (repositoryCopy != null) {
             // If repository copy is changing, check Deposit to make sure the RepositoryCopyId is present
             Deposit deposit = clientService.findNihmsDepositForSubmission(submission.getId());
             if (deposit != null && deposit.getRepositoryCopy() == null) {
@@ -224,6 +224,47 @@ public class SubmissionLoaderTest {
         verify(clientServiceMock, never()).updateDeposit(any());
     }
 
+    /**
+     * Check that if Submission has new Publication, new Submission and new RepositoryCopy, it will do
+     * createPublication and create the Submission and RepositoryCopy together
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testLoadNewPubNewSubmissionNewRepoCopy() throws Exception {
+        Publication publication = new Publication();
+        publication.setTitle(title);
+        publication.setPmid(pmid);
+
+        User submitter = new User(userId);
+
+        Submission submission = new Submission();
+        submission.setSubmitter(submitter);
+
+        RepositoryCopy repositoryCopy = new RepositoryCopy();
+        repositoryCopy.setRepository(new Repository(ConfigUtil.getNihmsRepositoryId()));
+        repositoryCopy.setCopyStatus(CopyStatus.ACCEPTED);
+
+        SubmissionDTO dto = new SubmissionDTO();
+        dto.setPublication(publication);
+        dto.setSubmission(submission);
+        dto.setRepositoryCopy(repositoryCopy);
+
+        SubmissionLoader loader = new SubmissionLoader(clientServiceMock, statusServiceMock);
+
+        //run it
+        loader.load(dto);
+
+        verify(clientServiceMock).createPublication(publication);
+        verify(clientServiceMock).createSubmissionAndRepositoryCopy(submission, repositoryCopy);
+        assertEquals(publication, submission.getPublication());
+        assertEquals(publication, repositoryCopy.getPublication());
+
+        verify(clientServiceMock, never()).createSubmission(any());
+        verify(clientServiceMock, never()).createRepositoryCopy(any());
+        verify(clientServiceMock, never()).updateRepositoryCopy(any());
+    }
+
     /**
      * Check that if Submission has existing publication, existing submission, new RepositoryCopy,
      * existing Deposit that has no RepoCopy that it does updatePublication, updateSubmission,
@@ -536,6 +536,23 @@ public class NihmsPassClientService {
         return submission.getId();
     }
 
+    /**
+     * Create a new Submission and a new RepositoryCopy in PASS with a single request. Neither may depend on the other.
+     *
+     * @param submission the submission
+     * @param repositoryCopy the repository copy
+     * @throws IOException if there is an error creating the submission and repository copy
+     */
+    public void createSubmissionAndRepositoryCopy(Submission submission, RepositoryCopy repositoryCopy)
+        throws IOException {
+        passClient.createObjects(List.of(submission, repositoryCopy));
+        LOG.info("New Submission created with ID {}", submission.getId());
+        LOG.info("New RepositoryCopy created with ID {}", repositoryCopy.getId());
+        String key = userIdPubIdKey(submission.getSubmitter().getId(), submission.getPublication().getId());
+        userPubSubsCache.addToOrCreateEntry(key, submission.getId());
+        nihmsRepoCopyCache.put(repositoryCopy.getPublication().getId(), repositoryCopy.getId());
+    }
+
     /**
      * Create a new RepositoryCopy in PASS
      *
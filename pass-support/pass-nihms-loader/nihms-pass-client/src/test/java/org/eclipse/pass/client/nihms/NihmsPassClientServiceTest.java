@@ -490,6 +490,25 @@ public class NihmsPassClientServiceTest {
         assertEquals(submission.getId(), createdSubmissionId);
     }
 
+    /**
+     * Checks that createSubmissionAndRepositoryCopy creates both with a single batch
+     */
+    @Test
+    public void testCreateSubmissionAndRepositoryCopy() throws IOException {
+        User user = new User(userId);
+        Publication publication = new Publication(publicationId);
+        Submission submission = new Submission(submissionId);
+        submission.setSubmitter(user);
+        submission.setPublication(publication);
+        RepositoryCopy repositoryCopy = new RepositoryCopy(repositoryCopyId);
+        repositoryCopy.setPublication(publication);
+
+        clientService.createSubmissionAndRepositoryCopy(submission, repositoryCopy);
+
+        verify(mockClient).createObjects(eq(List.of(submission, repositoryCopy)));
+        verify(mockClient, never()).createObject(any());
+    }
+
     /**
      * Checks that if there are changes an update happens in updateSubmission
      */
@@ -19,6 +19,7 @@ import java.io.IOException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.eclipse.pass.support.client.JsonApiPassClient;
 import org.eclipse.pass.support.client.PassClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -48,13 +49,18 @@ public class SpringBootNotificationConfig {
     @Value("${pass.client.password}")
     private String passClientPassword;
 
+    @Value("${pass.client.cache.size:0}")
+    private int passClientCacheSize;
+
     /**
      * Configure the PassClient.
      * @return the PassClient bean
      */
     @Bean
     public PassClient passClient() {
-        return PassClient.newInstance(passClientUrl, passClientUser, passClientPassword);
+        JsonApiPassClient client = new JsonApiPassClient(passClientUrl, passClientUser, passClientPassword);
+        client.setCacheSize(passClientCacheSize);
+        return client;
     }
 
     /**
@@ -32,6 +32,12 @@ import org.springframework.util.ReflectionUtils;
  */
 public class JsonMetadataBuilder {
 
+    /**
+     * Keys of Submission metadata used in resource metadata
+     */
+    public static final String[] RESOURCE_METADATA_KEYS = {"title", "journal-title", "volume", "issue", "abstract",
+        "doi", "publisher", "authors"};
+
     private JsonMetadataBuilder() {}
 
     /**
@@ -53,14 +59,9 @@ public class JsonMetadataBuilder {
         }
 
         ObjectNode resourceMetadata = mapper.createObjectNode();
-        resourceMetadata.put("title", field("title", metadataNode).orElse(""));
-        resourceMetadata.put("journal-title", field("journal-title", metadataNode).orElse(""));
-        resourceMetadata.put("volume", field("volume", metadataNode).orElse(""));
-        resourceMetadata.put("issue", field("issue", metadataNode).orElse(""));
-        resourceMetadata.put("abstract", field("abstract", metadataNode).orElse(""));
-        resourceMetadata.put("doi", field("doi", metadataNode).orElse(""));
-        resourceMetadata.put("publisher", field("publisher", metadataNode).orElse(""));
-        resourceMetadata.put("authors", field("authors", metadataNode).orElse(""));
+        for (String key : RESOURCE_METADATA_KEYS) {
+            resourceMetadata.put(key, field(key, metadataNode).orElse(""));
+        }
         return resourceMetadata.toString();
     }
 
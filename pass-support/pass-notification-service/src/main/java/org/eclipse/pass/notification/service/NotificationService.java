@@ -16,14 +16,15 @@
 package org.eclipse.pass.notification.service;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
-
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.pass.notification.dispatch.DispatchService;
 import org.eclipse.pass.notification.model.Notification;
 import org.eclipse.pass.notification.model.SubmissionEventMessage;
 import org.eclipse.pass.support.client.PassClient;
+import org.eclipse.pass.support.client.model.PassEntity;
 import org.eclipse.pass.support.client.model.Submission;
 import org.eclipse.pass.support.client.model.SubmissionEvent;
 import org.springframework.stereotype.Service;
@@ -40,6 +41,10 @@ import org.springframework.stereotype.Service;
 @Service
 public class NotificationService {
 
+    // Only the fields of a Submission used to compose a Notification are retrieved
+    private static final Map<Class<? extends PassEntity>, String[]> SUBMISSION_FIELDS =
+        Map.of(Submission.class, new String[] {"submitter", "submitterEmail", "preparers"});
+
     private final PassClient passClient;
     private final DispatchService dispatchService;
     private final Composer composer;
@@ -52,7 +57,7 @@ public class NotificationService {
 
         try {
             SubmissionEvent submissionEvent = passClient.getObject(SubmissionEvent.class,
-                submissionEventMessage.getSubmissionEventId(), "submission", "performedBy");
+                submissionEventMessage.getSubmissionEventId(), "performedBy");
 
             populateSubmission(submissionEvent);
             if (isSelfSubmission(submissionEvent.getSubmission())) {
@@ -74,8 +79,14 @@ public class NotificationService {
 
     private void populateSubmission(SubmissionEvent submissionEvent) throws IOException {
         Objects.requireNonNull(submissionEvent.getSubmission(), "Submission must not be null.");
-        Submission populatedSubmission = passClient.getObject(submissionEvent.getSubmission(),
+        String submissionId = submissionEvent.getSubmission().getId();
+        Submission populatedSubmission = passClient.getObject(Submission.class, submissionId, SUBMISSION_FIELDS,
             "submitter", "preparers");
+        Objects.requireNonNull(populatedSubmission, "Submission " + submissionId + " does not exist.");
+
+        // The whole metadata may be large, so only the keys used in the resource metadata are retrieved
+        populatedSubmission.setMetadata(passClient.getSubmissionMetadata(submissionId,
+            JsonMetadataBuilder.RESOURCE_METADATA_KEYS));
         submissionEvent.setSubmission(populatedSubmission);
     }
 
@@ -17,6 +17,8 @@
  */
 package org.eclipse.pass.notification.service;
 
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -75,7 +77,9 @@ public class NotificationServiceTest {
 
         // THEN
         verify(passClient, times(1))
-            .getObject(SubmissionEvent.class, "test-event-id", "submission", "performedBy");
+            .getObject(SubmissionEvent.class, "test-event-id", "performedBy");
+        verify(passClient, times(1))
+            .getSubmissionMetadata("test-submission-id", JsonMetadataBuilder.RESOURCE_METADATA_KEYS);
         verify(composer).apply(sp.event, sp.eventMessage);
         verify(dispatchService).dispatch(n);
     }
@@ -96,7 +100,7 @@ public class NotificationServiceTest {
 
         // THEN
         verify(passClient, times(1))
-            .getObject(SubmissionEvent.class, "test-event-id", "submission", "performedBy");
+            .getObject(SubmissionEvent.class, "test-event-id", "performedBy");
         verifyNoInteractions(composer);
         verifyNoInteractions(dispatchService);
     }
@@ -117,7 +121,7 @@ public class NotificationServiceTest {
 
         // THEN
         verify(passClient, times(1))
-            .getObject(SubmissionEvent.class, "test-event-id", "submission", "performedBy");
+            .getObject(SubmissionEvent.class, "test-event-id", "performedBy");
         verifyNoInteractions(composer);
         verifyNoInteractions(dispatchService);
     }
@@ -141,7 +145,7 @@ public class NotificationServiceTest {
 
         // THEN
         verify(passClient, times(1))
-            .getObject(SubmissionEvent.class, "test-event-id", "submission", "performedBy");
+            .getObject(SubmissionEvent.class, "test-event-id", "performedBy");
         verifyNoInteractions(composer);
         verifyNoInteractions(dispatchService);
     }
@@ -174,7 +178,7 @@ public class NotificationServiceTest {
 
         // THEN
         verify(passClient, times(1))
-            .getObject(SubmissionEvent.class, "test-event-id", "submission", "performedBy");
+            .getObject(SubmissionEvent.class, "test-event-id", "performedBy");
         verify(composer).apply(sp.event, sp.eventMessage);
         verify(dispatchService).dispatch(n);
     }
@@ -198,8 +202,10 @@ public class NotificationServiceTest {
             submission = mock(Submission.class);
             when(submission.getId()).thenReturn(submissionId);
             when(event.getSubmission()).thenReturn(submission);
+            when(passClient.getObject(eq(Submission.class), eq(submissionId), anyMap(), eq("submitter"),
+                eq("preparers"))).thenReturn(submission);
 
-            when(passClient.getObject(SubmissionEvent.class, "test-event-id", "submission", "performedBy"))
+            when(passClient.getObject(SubmissionEvent.class, "test-event-id", "performedBy"))
                 .thenReturn(event);
         }
     }